@@ -0,0 +1,82 @@
+// Sustained-concurrency load test for GET /api/jobs/search against the upstream simulator.
+//
+// Start the backend with the simulator and a small Tomcat pool (application-loadtest.properties):
+//   SPRING_PROFILES_ACTIVE=test,loadtest mvn spring-boot:run
+// then:
+//   k6 run loadtest/job-search.js
+//
+// No network access, API keys or Google sign-in are needed:
+// - The loadtest profile accepts the fixed token easepath.loadtest.auth-token ("loadtest" unless
+//   EASEPATH_LOADTEST_TOKEN overrides it; pass the same value as TOKEN) in place of a Google ID token.
+// - No recordings are needed either. The simulator synthesizes a JSearch and TheirStack page for any
+//   search it has no recording for (miss-policy "any"). Recordings made with EASEPATH_SIMULATOR_MODE=record
+//   in simulator-recordings/ are replayed instead if present.
+//
+// Every request uses a query no one has searched before, so each one misses the cache and waits on the
+// simulated providers (2 s fixed). With 8 Tomcat threads, 64 concurrent searches only finish in about
+// 2 s if the endpoint releases its thread while it waits; a blocking endpoint would queue them behind
+// the pool and p95 would approach 64 / 8 * 2 s = 16 s. The thresholds encode that.
+//
+// The summary is written to loadtest/job-search-summary.json so runs can be compared.
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const TOKEN = __ENV.TOKEN || 'loadtest';
+const VUS = parseInt(__ENV.VUS || '64', 10);
+const DURATION = __ENV.DURATION || '2m';
+
+export const options = {
+    scenarios: {
+        sustained: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: DURATION,
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        // Simulated upstream latency plus headroom for Mongo and the merge window
+        http_req_duration: ['p(95)<4000'],
+    },
+};
+
+export function setup() {
+    const res = http.get(`${BASE_URL}/api/jobs/search?query=loadtest%20probe&page=1&num_pages=1`, {
+        headers: { Authorization: `Bearer ${TOKEN}` },
+    });
+    if (res.status === 401) {
+        throw new Error('Token rejected: start the backend with the loadtest profile, or pass TOKEN=<its auth-token>');
+    }
+}
+
+export default function () {
+    const query = encodeURIComponent(`loadtest engineer ${__VU}-${__ITER}-${Date.now()}`);
+    const res = http.get(`${BASE_URL}/api/jobs/search?query=${query}&page=1&num_pages=1`, {
+        headers: { Authorization: `Bearer ${TOKEN}` },
+        tags: { name: 'job-search' },
+        timeout: '60s',
+    });
+    check(res, {
+        'status is 200': (r) => r.status === 200,
+        'has data': (r) => r.status === 200 && Array.isArray(r.json('data')),
+        // Anything else was answered without waiting on the simulated providers and measures nothing
+        'went to the providers': (r) => r.headers['X-Cache-Status'] === 'MISS',
+    });
+}
+
+export function handleSummary(data) {
+    const duration = data.metrics.http_req_duration.values;
+    const lines = [
+        `job search, ${VUS} VUs for ${DURATION}`,
+        `  requests:   ${data.metrics.http_reqs.values.count} (${data.metrics.http_reqs.values.rate.toFixed(1)}/s)`,
+        `  failed:     ${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}%`,
+        `  latency ms: avg ${duration.avg.toFixed(0)}, p90 ${duration['p(90)'].toFixed(0)}, `
+            + `p95 ${duration['p(95)'].toFixed(0)}, max ${duration.max.toFixed(0)}`,
+    ];
+    return {
+        stdout: lines.join('\n') + '\n',
+        'loadtest/job-search-summary.json': JSON.stringify(data, null, 2),
+    };
+}
@@ -0,0 +1,195 @@
+package com.easepath.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Throughput and allocation of {@link TheirStackResponseTransformer} on real
+ * TheirStack pages, fed in network-sized chunks the way WebClient delivers
+ * them, against the tree-based conversion it replaced ({@code treeBaseline}).
+ * Pages come from the upstream simulator's recordings when there are any
+ * (run the app with the "test" profile and EASEPATH_SIMULATOR_MODE=record
+ * and a few searches first); otherwise synthetic pages from
+ * {@link SyntheticUpstream} are used, so it also runs offline. Run with {@code mvn -Pjmh compile exec:exec};
+ * the gc profiler's alloc rate per op is the number to watch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TheirStackResponseTransformerBenchmark {
+
+    @Param("simulator-recordings")
+    public String recordingsDir;
+
+    @Param({ "8192", "65536" })
+    public int chunkSize;
+
+    private final TheirStackResponseTransformer transformer = new TheirStackResponseTransformer();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<byte[]> pages;
+    private int next;
+
+    @Setup
+    public void loadRecordings() throws IOException {
+        pages = new ArrayList<>();
+        Path dir = Path.of(recordingsDir, "theirstack");
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).sorted().toList()) {
+                    JsonNode saved = objectMapper.readTree(file.toFile());
+                    pages.add(saved.path("body").asText("").getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (pages.isEmpty()) {
+            SyntheticUpstream synthetic = new SyntheticUpstream();
+            for (String query : List.of("software engineer", "registered nurse", "data analyst", "product manager")) {
+                for (int page = 0; page < 4; page++) {
+                    String request = "{\"page\":" + page + ",\"job_title_pattern_or\":[\"" + query + "\"]}";
+                    try {
+                        pages.add(synthetic.theirStackSearch(request).getBytes(StandardCharsets.UTF_8));
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Could not generate a synthetic TheirStack page", e);
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int transform() throws IOException {
+        byte[] page = pages.get(next++ % pages.size());
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+        try (TheirStackResponseTransformer.Transform transform = transformer.open(out)) {
+            for (int offset = 0; offset < page.length; offset += chunkSize) {
+                transform.feed(page, offset, Math.min(chunkSize, page.length - offset));
+            }
+            if (!transform.finish()) {
+                throw new IllegalStateException("Recorded page is not valid JSON");
+            }
+        }
+        return out.size();
+    }
+
+    /**
+     * The conversion as it was before the streaming transformer: the whole
+     * body aggregated into a String (WebClient's bodyToMono(String.class), so
+     * chunkSize doesn't apply), read into a tree, rebuilt as a second tree of
+     * ObjectNodes and serialized.
+     */
+    @Benchmark
+    public int treeBaseline() throws IOException {
+        byte[] page = pages.get(next++ % pages.size());
+        String body = new String(page, StandardCharsets.UTF_8);
+
+        JsonNode root = objectMapper.readTree(body);
+        JsonNode dataArray = root.path("data");
+
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("status", "OK");
+        ArrayNode jobsArray = objectMapper.createArrayNode();
+
+        if (dataArray.isArray()) {
+            for (JsonNode job : dataArray) {
+                ObjectNode transformedJob = objectMapper.createObjectNode();
+                transformedJob.put("job_id", job.path("id").asText());
+                transformedJob.put("job_title", job.path("job_title").asText());
+
+                String company = job.path("company").asText();
+                if (company.isEmpty() && job.has("company_object")) {
+                    company = job.path("company_object").path("name").asText();
+                }
+                transformedJob.put("employer_name", company);
+
+                if (job.has("company_object") && job.path("company_object").has("logo")) {
+                    transformedJob.put("employer_logo", job.path("company_object").path("logo").asText());
+                } else {
+                    transformedJob.putNull("employer_logo");
+                }
+
+                String jobLocation = job.path("job_location").asText("");
+                String[] locationParts = jobLocation.split(",");
+                transformedJob.put("job_city", locationParts.length > 0 ? locationParts[0].trim() : "");
+                transformedJob.put("job_state", locationParts.length > 1 ? locationParts[1].trim() : "");
+                transformedJob.put("job_country", job.path("job_country_code").asText("US"));
+
+                String commitment = job.path("commitment").asText("full_time");
+                String employmentType = switch (commitment.toLowerCase()) {
+                    case "full_time" -> "FULLTIME";
+                    case "part_time" -> "PARTTIME";
+                    case "internship", "intern" -> "INTERN";
+                    case "contract", "contractor" -> "CONTRACTOR";
+                    default -> "FULLTIME";
+                };
+                transformedJob.put("job_employment_type", employmentType);
+
+                String datePosted = job.path("date_posted").asText();
+                transformedJob.put("job_posted_at_datetime_utc",
+                        datePosted.isEmpty() ? "" : datePosted + "T00:00:00.000Z");
+
+                transformedJob.put("job_description", job.path("description").asText(""));
+
+                String url = job.path("url").asText();
+                if (url.isEmpty()) {
+                    url = job.path("final_url").asText();
+                }
+                transformedJob.put("job_apply_link", url);
+
+                transformedJob.putNull("job_min_salary");
+                transformedJob.putNull("job_max_salary");
+                transformedJob.putNull("job_salary_currency");
+                transformedJob.putNull("job_salary_period");
+
+                transformedJob.put("job_is_remote", jobLocation.toLowerCase().contains("remote"));
+
+                if (job.has("technology_slugs") && job.path("technology_slugs").isArray()) {
+                    ArrayNode skills = objectMapper.createArrayNode();
+                    for (JsonNode tech : job.path("technology_slugs")) {
+                        skills.add(tech.asText());
+                    }
+                    transformedJob.set("job_required_skills", skills);
+                } else {
+                    transformedJob.putNull("job_required_skills");
+                }
+
+                ObjectNode experience = objectMapper.createObjectNode();
+                experience.put("no_experience_required", false);
+                experience.putNull("required_experience_in_months");
+                transformedJob.set("job_required_experience", experience);
+
+                jobsArray.add(transformedJob);
+            }
+        }
+
+        result.set("data", jobsArray);
+        return objectMapper.writeValueAsString(result).length();
+    }
+}
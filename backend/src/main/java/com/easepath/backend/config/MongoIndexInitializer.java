@@ -0,0 +1,96 @@
+package com.easepath.backend.config;
+
+import java.util.List;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.model.CompletionCacheDocument;
+import com.easepath.backend.model.FieldMappingCacheDocument;
+import com.easepath.backend.model.FieldMappingCorrectionDocument;
+import com.easepath.backend.model.JobPostingDocument;
+import com.easepath.backend.model.JobSearchCache;
+import com.easepath.backend.model.ProviderCreditWindow;
+
+/**
+ * Creates the indexes declared with @Indexed / @CompoundIndex on our
+ * documents. Spring Boot leaves spring.data.mongodb.auto-index-creation off,
+ * so without this the annotations (including the TTL indexes that expire
+ * documents) never reach Mongo.
+ */
+@Component
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    // Documents whose annotated indexes are created on startup
+    private static final List<Class<?>> INDEXED_DOCUMENTS = List.of(
+            JobPostingDocument.class,
+            CompletionCacheDocument.class,
+            FieldMappingCacheDocument.class,
+            FieldMappingCorrectionDocument.class,
+            ProviderCreditWindow.class,
+            JobSearchCache.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // Before the other startup listeners, which already read and write these collections
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureIndexes() {
+        removeDuplicateSearchCacheEntries();
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> document : INDEXED_DOCUMENTS) {
+            IndexOperations indexOps = mongoTemplate.indexOps(document);
+            for (IndexDefinition index : resolver.resolveIndexFor(document)) {
+                try {
+                    indexOps.ensureIndex(index);
+                } catch (Exception e) {
+                    // An index that can't be created must not keep the app from starting
+                    log.warn("Could not create index {} on {}: {}", index.getIndexKeys(),
+                            mongoTemplate.getCollectionName(document), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Keep only the newest job_search_cache document per query, so the unique
+     * query index can be built over entries written before it existed.
+     */
+    private void removeDuplicateSearchCacheEntries() {
+        Aggregation duplicates = Aggregation.newAggregation(
+                Aggregation.sort(Sort.Direction.DESC, "createdAt"),
+                Aggregation.group("query").push("_id").as("ids").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1)));
+        try {
+            for (Document group : mongoTemplate.aggregate(duplicates, JobSearchCache.class, Document.class)) {
+                List<Object> ids = group.getList("ids", Object.class);
+                mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids.subList(1, ids.size()))),
+                        JobSearchCache.class);
+                log.info("Removed {} duplicate job search cache entries for {}", ids.size() - 1, group.get("_id"));
+            }
+        } catch (Exception e) {
+            log.warn("Could not remove duplicate job search cache entries: {}", e.getMessage());
+        }
+    }
+}
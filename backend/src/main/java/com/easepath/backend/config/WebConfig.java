@@ -19,6 +19,7 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("http://localhost:*", "http://127.0.0.1:*", "chrome-extension://*", "https://www.easepath.app")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
                 .allowedHeaders("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With")
+                .exposedHeaders("X-Cache-Status", "X-Fetched-At", "ETag")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
@@ -35,6 +36,7 @@ public class WebConfig implements WebMvcConfigurer {
         ));
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         config.setAllowedHeaders(Arrays.asList("Origin", "Content-Type", "Accept", "Authorization", "X-Requested-With"));
+        config.setExposedHeaders(Arrays.asList("X-Cache-Status", "X-Fetched-At", "ETag"));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L);
 
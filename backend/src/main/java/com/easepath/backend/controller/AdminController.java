@@ -100,6 +100,45 @@ public class AdminController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Get job search cache counters (admin only).
+     */
+    @GetMapping("/cache/jobs")
+    public ResponseEntity<?> getJobSearchCacheStats(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(adminPanelService.getJobSearchCacheStats());
+    }
+
+    /**
+     * Get job provider circuit breaker state and transitions (admin only).
+     */
+    @GetMapping("/providers/jobs")
+    public ResponseEntity<?> getJobProviderStatus(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(adminPanelService.getJobProviderStatus());
+    }
+
+    /**
+     * Get OpenAI usage counters, e.g. completion cache hits (admin only).
+     */
+    @GetMapping("/openai")
+    public ResponseEntity<?> getOpenAiStats(HttpServletRequest request) {
+        ResponseEntity<?> authCheck = checkAdminAccess(request);
+        if (authCheck != null) {
+            return authCheck;
+        }
+
+        return ResponseEntity.ok(adminPanelService.getOpenAiStats());
+    }
+
     /**
      * Verify admin access. Returns null if access granted, or error response if
      * denied.
@@ -6,10 +6,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -34,6 +37,8 @@ import com.easepath.backend.service.AnswerLearningService;
 import com.easepath.backend.service.FormMappingService;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * API endpoints for the browser extension.
@@ -219,9 +224,13 @@ public class ExtensionController {
     public ResponseEntity<Void> recordCorrection(
             @RequestParam(value = "url") String url,
             @RequestParam(value = "fieldId") String fieldId,
-            @RequestParam(value = "correctProfileField") String correctProfileField) {
+            @RequestParam(value = "correctProfileField") String correctProfileField,
+            HttpServletRequest httpRequest) {
         log.info("Recording correction for URL: {}, field: {} -> {}", url, fieldId, correctProfileField);
-        formMappingService.recordCorrection(url, fieldId, correctProfileField);
+        // Only signed-in users vote on shared mappings; an email parameter could name anyone
+        User currentUser = getCurrentUser(httpRequest);
+        formMappingService.recordCorrection(url, fieldId, correctProfileField,
+                currentUser != null ? currentUser.getEmail() : null);
         return ResponseEntity.ok().build();
     }
 
@@ -572,6 +581,8 @@ public class ExtensionController {
         private String jobTitle;
         private String companyName;
         private int maxLength;
+        // "Regenerate" in the extension: skip the completion cache for a new answer
+        private boolean regenerate;
 
         public String getUserEmail() {
             return userEmail;
@@ -612,6 +623,14 @@ public class ExtensionController {
         public void setMaxLength(int maxLength) {
             this.maxLength = maxLength;
         }
+
+        public boolean isRegenerate() {
+            return regenerate;
+        }
+
+        public void setRegenerate(boolean regenerate) {
+            this.regenerate = regenerate;
+        }
     }
 
     /**
@@ -651,11 +670,21 @@ public class ExtensionController {
         }
 
         // Generate the response
-        String aiResponse = openAIService.generateAnswer(
-                request.getQuestion(),
-                profile,
-                request.getJobTitle(),
-                request.getCompanyName());
+        String aiResponse;
+        try {
+            aiResponse = openAIService.generateAnswer(
+                    request.getQuestion(),
+                    profile,
+                    request.getJobTitle(),
+                    request.getCompanyName(),
+                    request.isRegenerate(),
+                    request.getMaxLength());
+        } catch (RejectedExecutionException e) {
+            log.warn("AI essay rejected for user {}: {}", userEmail, e.getMessage());
+            Map<String, Object> errorResponse = new HashMap<>();
+            errorResponse.put("error", "AI service is busy. Please try again in a moment.");
+            return ResponseEntity.status(503).body(errorResponse);
+        }
 
         if (aiResponse == null || aiResponse.isEmpty()) {
             Map<String, Object> errorResponse = new HashMap<>();
@@ -663,7 +692,8 @@ public class ExtensionController {
             return ResponseEntity.status(500).body(errorResponse);
         }
 
-        // Truncate if needed, respecting word boundaries
+        // The model is asked for maxLength and max_tokens is sized to it; trim any
+        // overshoot, respecting word boundaries
         if (request.getMaxLength() > 0 && aiResponse.length() > request.getMaxLength()) {
             // Find the last space before the max length to avoid cutting words in half
             int truncateAt = aiResponse.lastIndexOf(' ', request.getMaxLength());
@@ -683,4 +713,80 @@ public class ExtensionController {
         log.info("AI essay generated successfully, length: {} chars", aiResponse.length());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Streaming variant of {@link #generateEssay}: the answer is sent as
+     * Server-Sent Events while OpenAI generates it, so the extension can show
+     * text after the first tokens instead of after the whole completion.
+     * Events: "token" ({@code {"text": ...}}) for each piece to append, then
+     * "done" with the whole answer, or "error". The answer is cut to maxLength
+     * during the stream. Returns a Flux, so the servlet thread is released
+     * (async servlet request) for as long as the stream runs.
+     */
+    @PostMapping(value = "/generate-essay/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<Map<String, Object>>>> streamEssay(
+            @RequestBody GenerateEssayRequest request,
+            HttpServletRequest httpRequest) {
+
+        String userEmail = getUserEmail(httpRequest, request.getUserEmail());
+        if (userEmail == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        log.info("Streaming AI essay for user: {}, question: {}...",
+                userEmail,
+                request.getQuestion() != null
+                        ? request.getQuestion().substring(0, Math.min(50, request.getQuestion().length()))
+                        : "");
+
+        UserProfileDocument profile = userProfileRepository.findByEmail(userEmail).orElse(null);
+        if (profile == null) {
+            return ResponseEntity.status(400)
+                    .body(Flux.just(errorEvent("Profile not found. Please set up your profile first.")));
+        }
+        if (!openAIService.isAvailable()) {
+            return ResponseEntity.status(503).body(Flux.just(errorEvent("AI service is not configured.")));
+        }
+
+        StringBuilder answer = new StringBuilder();
+        Flux<ServerSentEvent<Map<String, Object>>> events = openAIService.streamAnswer(
+                request.getQuestion(),
+                profile,
+                request.getJobTitle(),
+                request.getCompanyName(),
+                request.isRegenerate(),
+                request.getMaxLength())
+                .map(text -> {
+                    answer.append(text);
+                    return ServerSentEvent.<Map<String, Object>>builder()
+                            .event("token")
+                            .data(Map.of("text", text))
+                            .build();
+                })
+                .concatWith(Mono.fromSupplier(() -> {
+                    if (answer.isEmpty()) {
+                        return errorEvent("Failed to generate AI response. Please try again.");
+                    }
+                    log.info("AI essay streamed successfully, length: {} chars", answer.length());
+                    Map<String, Object> done = new HashMap<>();
+                    done.put("response", answer.toString());
+                    done.put("success", true);
+                    return ServerSentEvent.<Map<String, Object>>builder().event("done").data(done).build();
+                }))
+                .onErrorResume(e -> {
+                    if (e instanceof RejectedExecutionException) {
+                        log.warn("AI essay stream rejected for user {}: {}", userEmail, e.getMessage());
+                        return Mono.just(errorEvent("AI service is busy. Please try again in a moment."));
+                    }
+                    log.error("AI essay stream failed for user {}: {}", userEmail, e.getMessage());
+                    return Mono.just(errorEvent("Failed to generate AI response. Please try again."));
+                });
+        return ResponseEntity.ok(events);
+    }
+
+    private static ServerSentEvent<Map<String, Object>> errorEvent(String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", message);
+        return ServerSentEvent.<Map<String, Object>>builder().event("error").data(error).build();
+    }
 }
@@ -1,17 +1,28 @@
 package com.easepath.backend.controller;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.easepath.backend.dto.JobSearchResult;
 import com.easepath.backend.model.User;
+import com.easepath.backend.service.JobSearchKey;
 import com.easepath.backend.service.JobSearchService;
+import com.easepath.backend.util.GzipUtils;
 
 import jakarta.servlet.http.HttpServletRequest;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/api/jobs")
@@ -21,7 +32,7 @@ import jakarta.servlet.http.HttpServletRequest;
         "chrome-extension://*",
         "https://www.easepath.app",
         "https://easepath.app"
-}, allowCredentials = "true")
+}, allowCredentials = "true", exposedHeaders = { "X-Cache-Status", "X-Fetched-At", "ETag" })
 public class JobController {
 
     private final JobSearchService jobSearchService;
@@ -30,23 +41,124 @@ public class JobController {
         this.jobSearchService = jobSearchService;
     }
 
+    /**
+     * Returns a Mono so the servlet thread is released (async servlet request)
+     * while the search waits on Mongo or the providers.
+     * A matching If-None-Match is answered with 304 from the cached ETag
+     * alone, without loading or sending the result.
+     */
     @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<String> searchJobs(
+    public Mono<ResponseEntity<byte[]>> searchJobs(
             @RequestParam(value = "query") String query,
+            @RequestParam(value = "page", defaultValue = "1") String requestedPage,
             @RequestParam(value = "num_pages", defaultValue = "1") String numPages,
             @RequestParam(value = "date_posted", defaultValue = "all") String datePosted,
             @RequestParam(value = "remote_jobs_only", required = false) String remoteJobsOnly,
             @RequestParam(value = "employment_types", required = false) String employmentTypes,
             @RequestParam(value = "job_requirements", required = false) String jobRequirements,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
             HttpServletRequest request) {
 
+        User currentUser = (User) request.getAttribute("currentUser");
+        if (currentUser == null) {
+            return Mono.just(ResponseEntity.status(401).build());
+        }
+
+        String page = clampPage(requestedPage);
+        Mono<ResponseEntity<byte[]>> search = Mono.defer(() -> jobSearchService.searchJobs(query, page, numPages,
+                datePosted, remoteJobsOnly, employmentTypes, jobRequirements)
+                .map(result -> toResponse(result, acceptEncoding)));
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return search;
+        }
+        return jobSearchService.currentValidator(query, page, numPages, datePosted, remoteJobsOnly, employmentTypes,
+                jobRequirements)
+                .filter(validator -> matches(ifNoneMatch, validator.etag()))
+                .map(validator -> {
+                    HttpHeaders headers = new HttpHeaders();
+                    setValidatorHeaders(headers, validator.etag(), validator.freshUntil());
+                    headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+                    return ResponseEntity.status(304).headers(headers).<byte[]>build();
+                })
+                .switchIfEmpty(search);
+    }
+
+    /**
+     * The page number within 1..{@link JobSearchKey#MAX_PAGE}; anything that
+     * isn't a number is page 1.
+     */
+    private static String clampPage(String page) {
+        try {
+            long number = Long.parseLong(page.trim());
+            return String.valueOf(Math.max(1, Math.min(number, JobSearchKey.MAX_PAGE)));
+        } catch (NumberFormatException e) {
+            return "1";
+        }
+    }
+
+    /**
+     * Whether an If-None-Match list names this ETag. Weak comparison, since
+     * the same ETag covers the gzipped and plain bodies.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void setValidatorHeaders(HttpHeaders headers, String etag, Instant freshUntil) {
+        if (etag == null) {
+            // Local and error results have no stable identity
+            headers.setCacheControl("no-cache");
+            return;
+        }
+        headers.setETag("W/\"" + etag + "\"");
+        // Fresh on the client until the server would refresh it, then revalidate
+        long maxAge = freshUntil != null ? Math.max(0, Duration.between(Instant.now(), freshUntil).toSeconds()) : 0;
+        headers.setCacheControl("private, max-age=" + maxAge);
+    }
+
+    private ResponseEntity<byte[]> toResponse(JobSearchResult result, String acceptEncoding) {
+        // Freshness markers so the UI can show "updated N hours ago"
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Cache-Status", result.getCacheStatus().name());
+        if (result.getFetchedAt() != null) {
+            headers.set("X-Fetched-At", result.getFetchedAt().toString());
+        }
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        setValidatorHeaders(headers, result.getEtag(), result.getFreshUntil());
+
+        // Cached results are stored gzipped - pass the bytes straight through
+        if (GzipUtils.acceptsGzip(acceptEncoding)) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return ResponseEntity.ok().headers(headers).body(result.getResultGzip());
+        }
+        return ResponseEntity.ok().headers(headers).body(result.getResultJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @GetMapping(value = "/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJob(@PathVariable String jobId, HttpServletRequest request) {
         User currentUser = (User) request.getAttribute("currentUser");
         if (currentUser == null) {
             return ResponseEntity.status(401).build();
         }
 
-        String result = jobSearchService.searchJobs(query, numPages, datePosted, remoteJobsOnly, employmentTypes,
-                jobRequirements);
-        return ResponseEntity.ok(result);
+        return jobSearchService.findJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -271,7 +271,11 @@ public class ResumeController {
 
                     Map<String, Object> score = openAIService.scoreResume(resumeText, resume.getFileName());
 
-                    // Cache the results
+                    // Cache the results, unless scoring failed and these are placeholders
+                    if (Boolean.TRUE.equals(score.remove("fallback"))) {
+                        score.put("fileName", resume.getFileName());
+                        return ResponseEntity.ok(score);
+                    }
                     try {
                         resume.setScoreOverall((Integer) score.get("overall"));
                         resume.setScoreProfile((Integer) score.get("profile"));
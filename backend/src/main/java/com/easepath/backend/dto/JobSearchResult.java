@@ -0,0 +1,78 @@
+package com.easepath.backend.dto;
+
+import java.time.Instant;
+
+import com.easepath.backend.util.GzipUtils;
+
+/**
+ * Result of a job search together with where it came from and how old it is,
+ * so the frontend can show "updated N hours ago".
+ * The payload is kept in whichever form it was stored in (gzipped or plain)
+ * and only converted if the client needs the other one.
+ */
+public class JobSearchResult {
+
+    public enum CacheStatus {
+        HIT,            // cached and within its refresh window
+        STALE,          // past its refresh window, a background refresh was scheduled
+        MISS,           // fetched from a provider for this request
+        LOCAL,          // answered from the in-process index of known postings
+        STALE_IF_ERROR, // providers failed, serving an expired cached result
+        ERROR           // providers failed and nothing was cached
+    }
+
+    private final String resultJson;
+    private final byte[] resultGzip;
+    private final CacheStatus cacheStatus;
+    private final Instant fetchedAt;
+    private final String etag;
+    private final Instant freshUntil;
+
+    public JobSearchResult(String resultJson, byte[] resultGzip, CacheStatus cacheStatus, Instant fetchedAt) {
+        this(resultJson, resultGzip, cacheStatus, fetchedAt, null, null);
+    }
+
+    public JobSearchResult(String resultJson, byte[] resultGzip, CacheStatus cacheStatus, Instant fetchedAt,
+            String etag, Instant freshUntil) {
+        this.resultJson = resultJson;
+        this.resultGzip = resultGzip;
+        this.cacheStatus = cacheStatus;
+        this.fetchedAt = fetchedAt;
+        this.etag = etag;
+        this.freshUntil = freshUntil;
+    }
+
+    public String getResultJson() {
+        return resultGzip != null ? GzipUtils.decompress(resultGzip) : resultJson;
+    }
+
+    public byte[] getResultGzip() {
+        return resultGzip != null ? resultGzip : GzipUtils.compress(resultJson);
+    }
+
+    public CacheStatus getCacheStatus() {
+        return cacheStatus;
+    }
+
+    /**
+     * When the result was fetched from the upstream provider, or null for errors.
+     */
+    public Instant getFetchedAt() {
+        return fetchedAt;
+    }
+
+    /**
+     * Content hash of the payload, or null if the result can't be validated
+     * (errors, locally assembled answers, legacy cache entries).
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Until when the cached result is served without a refresh, or null.
+     */
+    public Instant getFreshUntil() {
+        return freshUntil;
+    }
+}
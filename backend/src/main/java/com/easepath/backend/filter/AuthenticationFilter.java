@@ -4,6 +4,8 @@ import java.io.IOException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -22,8 +24,18 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 
     private final GoogleAuthService googleAuthService;
 
-    public AuthenticationFilter(GoogleAuthService googleAuthService) {
+    // Load tests run against the upstream simulator without network access, where Google ID tokens
+    // can't be verified. Only under the "loadtest" profile, this fixed token authenticates as a stub user.
+    private final String loadTestToken;
+
+    public AuthenticationFilter(GoogleAuthService googleAuthService, Environment environment) {
         this.googleAuthService = googleAuthService;
+        this.loadTestToken = environment.acceptsProfiles(Profiles.of("loadtest"))
+                ? environment.getProperty("easepath.loadtest.auth-token", "")
+                : "";
+        if (!loadTestToken.isEmpty()) {
+            log.warn("Load test profile active: requests with the load test token skip Google verification");
+        }
     }
 
     @Override
@@ -60,7 +72,9 @@ public class AuthenticationFilter extends OncePerRequestFilter {
 
         try {
             // Verify token and extract user info
-            User user = googleAuthService.verifyToken(token);
+            User user = !loadTestToken.isEmpty() && loadTestToken.equals(token)
+                    ? User.builder().email("loadtest@easepath.local").name("Load Test").build()
+                    : googleAuthService.verifyToken(token);
 
             if (user == null) {
                 log.warn("❌ Invalid token for path: {}", path);
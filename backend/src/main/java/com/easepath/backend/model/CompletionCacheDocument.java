@@ -0,0 +1,105 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * A cached OpenAI chat completion, addressed by a hash of everything that
+ * determines it (model, temperature, max_tokens and prompt). The prompt itself
+ * is not stored.
+ */
+@Document(collection = "openai_completion_cache")
+public class CompletionCacheDocument {
+
+    // SHA-256 of model, temperature, max_tokens and prompt
+    @Id
+    private String id;
+
+    private String model;
+
+    // The completion's message content
+    private String content;
+
+    // Token usage of the original call, credited as saved on every hit
+    private int promptTokens;
+
+    private int completionTokens;
+
+    private Instant createdAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public CompletionCacheDocument() {
+    }
+
+    public CompletionCacheDocument(String id, String model, String content, int promptTokens,
+            int completionTokens, Instant createdAt, Instant expireAt) {
+        this.id = id;
+        this.model = model;
+        this.content = content;
+        this.promptTokens = promptTokens;
+        this.completionTokens = completionTokens;
+        this.createdAt = createdAt;
+        this.expireAt = expireAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public void setModel(String model) {
+        this.model = model;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public int getPromptTokens() {
+        return promptTokens;
+    }
+
+    public void setPromptTokens(int promptTokens) {
+        this.promptTokens = promptTokens;
+    }
+
+    public int getCompletionTokens() {
+        return completionTokens;
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = completionTokens;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * The profile field a form field maps to, as decided by OpenAI, addressed by
+ * a hash of the field's descriptors (label, name, id, placeholder, type). It
+ * holds no user data, so one user's mapping fills the same form for everyone.
+ */
+@Document(collection = "form_field_mapping_cache")
+public class FieldMappingCacheDocument {
+
+    // SHA-256 of the normalized field descriptors
+    @Id
+    private String id;
+
+    // Profile field name (see ProfileFields), or null if no profile field fits
+    private String profileField;
+
+    // The field's label, for reading the collection by hand
+    private String label;
+
+    private Instant createdAt;
+
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public FieldMappingCacheDocument() {
+    }
+
+    public FieldMappingCacheDocument(String id, String profileField, String label, Instant createdAt,
+            Instant expireAt) {
+        this.id = id;
+        this.profileField = profileField;
+        this.label = label;
+        this.createdAt = createdAt;
+        this.expireAt = expireAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProfileField() {
+        return profileField;
+    }
+
+    public void setProfileField(String profileField) {
+        this.profileField = profileField;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(String label) {
+        this.label = label;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Users' corrections of one cached form field mapping (see
+ * FieldMappingCacheDocument), one vote per user. The shared mapping is only
+ * replaced once enough users agree.
+ */
+@Document(collection = "form_field_mapping_corrections")
+public class FieldMappingCorrectionDocument {
+
+    // Same signature as the FieldMappingCacheDocument it corrects
+    @Id
+    private String id;
+
+    // Hashed user email -> the profile field that user says the form field takes
+    private Map<String, String> votes;
+
+    private Instant updatedAt;
+
+    // Votes that never reach agreement are dropped
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public FieldMappingCorrectionDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Map<String, String> getVotes() {
+        return votes;
+    }
+
+    public void setVotes(Map<String, String> votes) {
+        this.votes = votes;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
@@ -0,0 +1,183 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * One job posting as returned by a search provider, stored once no matter how
+ * many cached searches returned it. Search cache entries only hold the ordered
+ * list of these ids.
+ */
+@Document(collection = "jobs")
+@CompoundIndex(name = "location_idx", def = "{'country': 1, 'state': 1, 'city': 1}")
+public class JobPostingDocument {
+
+    // Provider job id (JSearch job_id / TheirStack id)
+    @Id
+    private String id;
+
+    // Provider that last returned this posting
+    private String provider;
+
+    private String title;
+
+    private String employerName;
+
+    private String city;
+
+    private String state;
+
+    private String country;
+
+    // FULLTIME, PARTTIME, INTERN, CONTRACTOR
+    @Indexed
+    private String employmentType;
+
+    @Indexed
+    private boolean remote;
+
+    @Indexed
+    private Instant postedAt;
+
+    // The posting in JSearch format, exactly as it is sent to clients
+    private String jobJson;
+
+    private Instant firstSeenAt;
+
+    private Instant lastSeenAt;
+
+    // Set when this is a near-duplicate of another posting (e.g. the same job
+    // from another provider); searches return that one instead
+    private String duplicateOf;
+
+    // Pushed forward every time a search returns the posting again
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public JobPostingDocument() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getEmployerName() {
+        return employerName;
+    }
+
+    public void setEmployerName(String employerName) {
+        this.employerName = employerName;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public void setCountry(String country) {
+        this.country = country;
+    }
+
+    public String getEmploymentType() {
+        return employmentType;
+    }
+
+    public void setEmploymentType(String employmentType) {
+        this.employmentType = employmentType;
+    }
+
+    public boolean isRemote() {
+        return remote;
+    }
+
+    public void setRemote(boolean remote) {
+        this.remote = remote;
+    }
+
+    public Instant getPostedAt() {
+        return postedAt;
+    }
+
+    public void setPostedAt(Instant postedAt) {
+        this.postedAt = postedAt;
+    }
+
+    public String getJobJson() {
+        return jobJson;
+    }
+
+    public void setJobJson(String jobJson) {
+        this.jobJson = jobJson;
+    }
+
+    public Instant getFirstSeenAt() {
+        return firstSeenAt;
+    }
+
+    public void setFirstSeenAt(Instant firstSeenAt) {
+        this.firstSeenAt = firstSeenAt;
+    }
+
+    public Instant getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Instant lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public String getDuplicateOf() {
+        return duplicateOf;
+    }
+
+    public void setDuplicateOf(String duplicateOf) {
+        this.duplicateOf = duplicateOf;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
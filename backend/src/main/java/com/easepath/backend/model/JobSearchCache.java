@@ -1,6 +1,8 @@
 package com.easepath.backend.model;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
@@ -12,14 +14,38 @@ public class JobSearchCache {
     @Id
     private String id;
 
-    @Indexed
+    // Fixed-length hash of the canonical search parameters (see JobSearchKey).
+    // Unique: a second document for a key would make every findByQuery fail.
+    @Indexed(unique = true)
     private String query;
 
+    // Readable canonical form of the search, for debugging
+    private String canonicalQuery;
+
+    // Legacy uncompressed payload; new entries only set resultGzip
     private String resultJson;
 
+    // Gzipped JSearch-format JSON, sent as-is to clients that accept gzip.
+    // Entries with jobIds don't persist it; it is rebuilt from the jobs
+    // collection when the entry is read and only kept in memory.
+    private byte[] resultGzip;
+
+    // Ordered ids of the postings in this result (see JobPostingDocument)
+    private List<String> jobIds;
+
+    // Content hash of the served payload, used as the ETag for conditional
+    // requests. Set when the entry is written and re-derived whenever the
+    // payload is rebuilt from postings that have changed since.
+    private String etag;
+
     private Instant createdAt;
 
-    // Cache expires after 72 hours (259200 seconds) to conserve API credits
+    // Soft TTL: after this the result is still served but refreshed in the
+    // background. Older documents without it use expireAt instead.
+    private Instant refreshAt;
+
+    // Hard TTL: after this the result is only served if both providers fail.
+    // The TTL index removes the document 72 hours (259200 seconds) later.
     @Indexed(expireAfterSeconds = 259200)
     private Instant expireAt;
 
@@ -33,6 +59,14 @@ public class JobSearchCache {
         this.expireAt = Instant.now().plusSeconds(259200); // 72 hours
     }
 
+    public JobSearchCache(String query, byte[] resultGzip, Duration softTtl, Duration hardTtl) {
+        this.query = query;
+        this.resultGzip = resultGzip;
+        this.createdAt = Instant.now();
+        this.refreshAt = this.createdAt.plus(softTtl);
+        this.expireAt = this.createdAt.plus(hardTtl);
+    }
+
     public String getId() {
         return id;
     }
@@ -49,6 +83,14 @@ public class JobSearchCache {
         this.query = query;
     }
 
+    public String getCanonicalQuery() {
+        return canonicalQuery;
+    }
+
+    public void setCanonicalQuery(String canonicalQuery) {
+        this.canonicalQuery = canonicalQuery;
+    }
+
     public String getResultJson() {
         return resultJson;
     }
@@ -57,6 +99,30 @@ public class JobSearchCache {
         this.resultJson = resultJson;
     }
 
+    public byte[] getResultGzip() {
+        return resultGzip;
+    }
+
+    public void setResultGzip(byte[] resultGzip) {
+        this.resultGzip = resultGzip;
+    }
+
+    public List<String> getJobIds() {
+        return jobIds;
+    }
+
+    public void setJobIds(List<String> jobIds) {
+        this.jobIds = jobIds;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -65,6 +131,14 @@ public class JobSearchCache {
         this.createdAt = createdAt;
     }
 
+    public Instant getRefreshAt() {
+        return refreshAt;
+    }
+
+    public void setRefreshAt(Instant refreshAt) {
+        this.refreshAt = refreshAt;
+    }
+
     public Instant getExpireAt() {
         return expireAt;
     }
@@ -0,0 +1,116 @@
+package com.easepath.backend.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Upstream API credit usage for one provider in one quota window (calendar
+ * month, UTC). Shared by all backend replicas and only ever updated with
+ * atomic Mongo operations.
+ */
+@Document(collection = "provider_credit_windows")
+public class ProviderCreditWindow {
+
+    // "<provider>|<yyyy-MM>"
+    @Id
+    private String id;
+
+    private String provider;
+
+    private Instant windowStart;
+
+    // Credits used in this window by all nodes
+    private long used;
+
+    // Configured credit limit for this window
+    private long creditLimit;
+
+    // Last X-RateLimit-*-Remaining value reported by the provider, if any
+    private Long reportedRemaining;
+
+    private Instant reportedAt;
+
+    private Instant updatedAt;
+
+    // Old windows are removed once they are well past
+    @Indexed(expireAfterSeconds = 0)
+    private Instant expireAt;
+
+    public ProviderCreditWindow() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public Instant getWindowStart() {
+        return windowStart;
+    }
+
+    public void setWindowStart(Instant windowStart) {
+        this.windowStart = windowStart;
+    }
+
+    public long getUsed() {
+        return used;
+    }
+
+    public void setUsed(long used) {
+        this.used = used;
+    }
+
+    public long getCreditLimit() {
+        return creditLimit;
+    }
+
+    public void setCreditLimit(long creditLimit) {
+        this.creditLimit = creditLimit;
+    }
+
+    public Long getReportedRemaining() {
+        return reportedRemaining;
+    }
+
+    public void setReportedRemaining(Long reportedRemaining) {
+        this.reportedRemaining = reportedRemaining;
+    }
+
+    public Instant getReportedAt() {
+        return reportedAt;
+    }
+
+    public void setReportedAt(Instant reportedAt) {
+        this.reportedAt = reportedAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getExpireAt() {
+        return expireAt;
+    }
+
+    public void setExpireAt(Instant expireAt) {
+        this.expireAt = expireAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.easepath.backend.repository;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import com.easepath.backend.model.CompletionCacheDocument;
+
+public interface CompletionCacheRepository extends MongoRepository<CompletionCacheDocument, String> {
+}
@@ -3,9 +3,16 @@ package com.easepath.backend.repository;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.Update;
 
 import com.easepath.backend.model.JobSearchCache;
 
 public interface JobSearchRepository extends MongoRepository<JobSearchCache, String> {
     Optional<JobSearchCache> findByQuery(String query);
+
+    // Only the ETag; saving the whole entry would persist its in-memory payload
+    @Query("{ '_id': ?0 }")
+    @Update("{ '$set': { 'etag': ?1 } }")
+    void updateEtag(String id, String etag);
 }
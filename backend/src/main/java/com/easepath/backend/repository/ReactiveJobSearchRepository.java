@@ -0,0 +1,19 @@
+package com.easepath.backend.repository;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+
+import com.easepath.backend.model.JobSearchCache;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking access to the job search cache for the request path.
+ */
+public interface ReactiveJobSearchRepository extends ReactiveMongoRepository<JobSearchCache, String> {
+    Mono<JobSearchCache> findByQuery(String query);
+
+    // Just enough to answer a conditional request, without the payload
+    @Query(value = "{ 'query': ?0 }", fields = "{ 'etag': 1, 'createdAt': 1, 'refreshAt': 1, 'expireAt': 1 }")
+    Mono<JobSearchCache> findValidatorByQuery(String query);
+}
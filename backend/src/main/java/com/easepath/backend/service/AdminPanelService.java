@@ -2,7 +2,9 @@ package com.easepath.backend.service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
@@ -29,13 +31,37 @@ public class AdminPanelService {
     private final AdminConfig adminConfig;
     private final UserProfileRepository userProfileRepository;
     private final JobApplicationRepository jobApplicationRepository;
+    private final JobSearchService jobSearchService;
+    private final ProviderHealthRegistry providerHealthRegistry;
+    private final CreditBudgetService creditBudgetService;
+    private final CacheWarmerService cacheWarmerService;
+    private final CompletionCache completionCache;
+    private final FieldMappingCache fieldMappingCache;
+    private final OpenAiCallScheduler openAiCallScheduler;
+    private final TokenBudgeter tokenBudgeter;
 
     public AdminPanelService(AdminConfig adminConfig,
             UserProfileRepository userProfileRepository,
-            JobApplicationRepository jobApplicationRepository) {
+            JobApplicationRepository jobApplicationRepository,
+            JobSearchService jobSearchService,
+            ProviderHealthRegistry providerHealthRegistry,
+            CreditBudgetService creditBudgetService,
+            CacheWarmerService cacheWarmerService,
+            CompletionCache completionCache,
+            FieldMappingCache fieldMappingCache,
+            OpenAiCallScheduler openAiCallScheduler,
+            TokenBudgeter tokenBudgeter) {
         this.adminConfig = adminConfig;
         this.userProfileRepository = userProfileRepository;
         this.jobApplicationRepository = jobApplicationRepository;
+        this.jobSearchService = jobSearchService;
+        this.providerHealthRegistry = providerHealthRegistry;
+        this.creditBudgetService = creditBudgetService;
+        this.cacheWarmerService = cacheWarmerService;
+        this.completionCache = completionCache;
+        this.fieldMappingCache = fieldMappingCache;
+        this.openAiCallScheduler = openAiCallScheduler;
+        this.tokenBudgeter = tokenBudgeter;
         log.info("AdminPanelService initialized with {} configured admin(s)", adminConfig.getAdminCount());
     }
 
@@ -99,6 +125,40 @@ public class AdminPanelService {
         return stats;
     }
 
+    /**
+     * Get hit/miss/eviction, request coalescing and cache warming counters for
+     * job search.
+     */
+    public Map<String, Object> getJobSearchCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(jobSearchService.getSearchStats());
+        stats.put("warming", cacheWarmerService.getStats());
+        return stats;
+    }
+
+    /**
+     * Get circuit breaker state, health scores, recent transitions and shared
+     * credit usage for the job search providers.
+     */
+    public Map<String, Object> getJobProviderStatus() {
+        Map<String, Object> status = new LinkedHashMap<>(providerHealthRegistry.getStatus());
+        status.put("credits", creditBudgetService.getStatus());
+        return status;
+    }
+
+    /**
+     * Get OpenAI completion cache hit rate and saved tokens, how many form
+     * fields were mapped without asking OpenAI, call queueing per priority
+     * class, and token usage per call site.
+     */
+    public Map<String, Object> getOpenAiStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("completionCache", completionCache.getStats());
+        stats.put("fieldMappingCache", fieldMappingCache.getStats());
+        stats.put("scheduler", openAiCallScheduler.getStats());
+        stats.put("tokens", tokenBudgeter.getStats());
+        return stats;
+    }
+
     /**
      * Get all users for admin user list.
      */
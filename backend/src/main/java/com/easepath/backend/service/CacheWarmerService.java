@@ -1,15 +1,35 @@
 package com.easepath.backend.service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import jakarta.annotation.PreDestroy;
+
 /**
- * Pre-populates the job search cache with common searches on application
- * startup.
- * This saves API credits by ensuring popular searches are already cached.
+ * Keeps the job search cache warm for the searches users actually run.
+ * JobSearchService tracks query frequency in a heavy-hitters sketch; every
+ * cycle the current top searches whose cached result is missing or due for a
+ * refresh soon are re-fetched in the background, a few at a time and at
+ * background credit priority, so they never expire in front of a user.
+ * The static list of popular searches is only a seed for a cold start, before
+ * there is any traffic to learn from.
  */
 @Service
 public class CacheWarmerService {
@@ -18,7 +38,7 @@ public class CacheWarmerService {
 
     private final JobSearchService jobSearchService;
 
-    // Common search terms to pre-cache
+    // Common search terms to pre-cache on a cold start
     private static final String[] POPULAR_SEARCHES = {
             "software engineer",
             "software engineer intern",
@@ -34,30 +54,127 @@ public class CacheWarmerService {
             "nurse"
     };
 
-    public CacheWarmerService(JobSearchService jobSearchService) {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cache-warmer").daemon(true).factory());
+    private final ExecutorService warmers;
+
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicLong warmed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile Instant lastCycle;
+    private volatile List<String> lastTopSearches = List.of();
+
+    // How many of the most popular searches are kept warm
+    @Value("${easepath.jobs.warming.top-k:50}")
+    private int topK;
+
+    @Value("${easepath.jobs.warming.interval-minutes:30}")
+    private long intervalMinutes;
+
+    // Re-warm entries due for a refresh within this window, so they are fresh before anyone asks
+    @Value("${easepath.jobs.warming.lead-minutes:90}")
+    private long leadMinutes;
+
+    // Upper bound on upstream calls per cycle, on top of the background credit budget
+    @Value("${easepath.jobs.warming.max-per-cycle:20}")
+    private int maxPerCycle;
+
+    public CacheWarmerService(JobSearchService jobSearchService,
+            @Value("${easepath.jobs.warming.concurrency:2}") int concurrency) {
         this.jobSearchService = jobSearchService;
+        this.warmers = Executors.newFixedThreadPool(concurrency,
+                Thread.ofPlatform().name("cache-warmer-", 0).daemon(true).factory());
     }
 
     @EventListener(ApplicationReadyEvent.class)
     public void warmCache() {
-        log.info("Starting cache warm-up with {} popular searches...", POPULAR_SEARCHES.length);
+        // Off the startup thread: seed first, then follow real traffic
+        scheduler.execute(this::seed);
+        scheduler.scheduleWithFixedDelay(this::warmPopular, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+    }
 
-        int successCount = 0;
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        warmers.shutdownNow();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cycles", cycles.get());
+        stats.put("warmed", warmed.get());
+        stats.put("failed", failed.get());
+        stats.put("lastCycle", lastCycle);
+        stats.put("topSearches", lastTopSearches);
+        return stats;
+    }
+
+    /**
+     * Cold start: make sure the seed searches are cached. Already cached ones
+     * cost nothing.
+     */
+    private void seed() {
+        log.info("Starting cache warm-up with {} seed searches...", POPULAR_SEARCHES.length);
+        List<JobSearchKey> keys = new ArrayList<>();
         for (String query : POPULAR_SEARCHES) {
-            try {
-                // Search with default parameters - this will cache the results
-                jobSearchService.searchJobs(query, "1", "all", null, null, null);
-                successCount++;
-                log.info(" Cached: {}", query);
-
-                // Small delay to avoid overwhelming the API
-                Thread.sleep(1000);
-            } catch (Exception e) {
-                log.warn("Failed to cache '{}': {}", query, e.getMessage());
+            keys.add(JobSearchKey.of(query, "1", "1", "all", null, null, null));
+        }
+        int successCount = warmAll(keys);
+        log.info("Cache warm-up complete! Successfully cached {}/{} searches.", successCount, keys.size());
+    }
+
+    /**
+     * One cycle: re-fetch the top searches that are missing or about to go
+     * stale.
+     */
+    private void warmPopular() {
+        try {
+            cycles.incrementAndGet();
+            lastCycle = Instant.now();
+            List<JobSearchKey> top = jobSearchService.takePopularSearches(topK);
+            lastTopSearches = top.stream().map(JobSearchKey::canonical).toList();
+
+            Duration lead = Duration.ofMinutes(leadMinutes);
+            List<JobSearchKey> due = top.stream()
+                    .filter(key -> jobSearchService.needsWarming(key, lead))
+                    .limit(maxPerCycle)
+                    .toList();
+            if (due.isEmpty()) {
+                return;
             }
+            int successCount = warmAll(due);
+            log.info("Re-warmed {}/{} popular searches due for refresh", successCount, due.size());
+        } catch (Exception e) {
+            log.warn("Cache warming cycle failed: {}", e.getMessage());
         }
+    }
 
-        log.info("Cache warm-up complete! Successfully cached {}/{} searches.",
-                successCount, POPULAR_SEARCHES.length);
+    /**
+     * Warm the searches that need it on the bounded warmer pool and wait for
+     * all of them.
+     */
+    private int warmAll(List<JobSearchKey> keys) {
+        Duration lead = Duration.ofMinutes(leadMinutes);
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (JobSearchKey key : keys) {
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (!jobSearchService.needsWarming(key, lead)) {
+                        return true;
+                    }
+                    boolean ok = jobSearchService.warm(key);
+                    (ok ? warmed : failed).incrementAndGet();
+                    if (!ok) {
+                        log.warn("Failed to cache '{}'", key.query());
+                    }
+                    return ok;
+                } catch (Exception e) {
+                    failed.incrementAndGet();
+                    log.warn("Failed to cache '{}': {}", key.query(), e.getMessage());
+                    return false;
+                }
+            }, warmers));
+        }
+        return (int) results.stream().filter(CompletableFuture::join).count();
     }
 }
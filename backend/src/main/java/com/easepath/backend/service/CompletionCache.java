@@ -0,0 +1,186 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.model.CompletionCacheDocument;
+import com.easepath.backend.repository.CompletionCacheRepository;
+import com.easepath.backend.util.TtlUtils;
+
+/**
+ * Content-addressed cache of OpenAI chat completions. A completion is keyed
+ * by a hash of the model, temperature, max_tokens and prompt, so the same
+ * request - the same resume scored twice, the same question for the same
+ * profile and job - is answered without another paid call.
+ * Two tiers: a bounded in-process LRU in front of a Mongo collection with a
+ * TTL index, shared by all replicas. Cache failures never fail the call; the
+ * caller just goes to OpenAI.
+ */
+@Component
+public class CompletionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CompletionCache.class);
+
+    /**
+     * A cached completion and the tokens its original call used.
+     */
+    public record Completion(String content, int promptTokens, int completionTokens) {
+    }
+
+    private final CompletionCacheRepository repository;
+    private final LinkedHashMap<String, CompletionCacheDocument> memory;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong mongoHits = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong savedPromptTokens = new AtomicLong();
+    private final AtomicLong savedCompletionTokens = new AtomicLong();
+
+    @Value("${easepath.openai.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${easepath.openai.cache.ttl-hours:168}")
+    private long ttlHours;
+
+    public CompletionCache(CompletionCacheRepository repository,
+            @Value("${easepath.openai.cache.memory-entries:2000}") int memoryEntries) {
+        this.repository = repository;
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletionCacheDocument> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * SHA-256 over everything that determines a completion, as 64 hex
+     * characters.
+     */
+    public static String key(String model, double temperature, int maxTokens, String prompt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest((model + "\n" + temperature + "\n" + maxTokens + "\n" + prompt)
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The cached completion for a key, or null. Hits are credited with the
+     * tokens the original call used.
+     */
+    public Completion get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        Instant now = Instant.now();
+
+        CompletionCacheDocument entry;
+        synchronized (this) {
+            entry = memory.get(key);
+            if (entry != null && TtlUtils.isExpired(entry.getExpireAt(), now)) {
+                memory.remove(key);
+                entry = null;
+            }
+        }
+        if (entry != null) {
+            memoryHits.incrementAndGet();
+            return hit(entry);
+        }
+
+        try {
+            entry = repository.findById(key).orElse(null);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            log.warn("Completion cache lookup failed: {}", e.getMessage());
+            return null;
+        }
+        if (entry == null || TtlUtils.isExpired(entry.getExpireAt(), now)) {
+            return null;
+        }
+        synchronized (this) {
+            memory.put(key, entry);
+        }
+        mongoHits.incrementAndGet();
+        return hit(entry);
+    }
+
+    /**
+     * Store a fresh completion in both tiers, replacing any earlier one.
+     */
+    public void put(String key, String model, Completion completion) {
+        if (!enabled || completion.content() == null || completion.content().isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        CompletionCacheDocument entry = new CompletionCacheDocument(key, model, completion.content(),
+                completion.promptTokens(), completion.completionTokens(), now, now.plus(Duration.ofHours(ttlHours)));
+        synchronized (this) {
+            memory.put(key, entry);
+        }
+        try {
+            repository.save(entry);
+            stores.incrementAndGet();
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            log.warn("Completion cache store failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Count a call that skipped the cache because it wants a fresh answer.
+     */
+    public void recordBypass() {
+        bypassed.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        long total = lookups.get();
+        long hits = memoryHits.get() + mongoHits.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("lookups", total);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("mongoHits", mongoHits.get());
+        stats.put("misses", total - hits);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hits / total);
+        stats.put("bypassed", bypassed.get());
+        stats.put("stores", stores.get());
+        stats.put("errors", errors.get());
+        stats.put("savedPromptTokens", savedPromptTokens.get());
+        stats.put("savedCompletionTokens", savedCompletionTokens.get());
+        synchronized (this) {
+            stats.put("memoryEntries", memory.size());
+        }
+        return stats;
+    }
+
+    private Completion hit(CompletionCacheDocument entry) {
+        savedPromptTokens.addAndGet(entry.getPromptTokens());
+        savedCompletionTokens.addAndGet(entry.getCompletionTokens());
+        return new Completion(entry.getContent(), entry.getPromptTokens(), entry.getCompletionTokens());
+    }
+}
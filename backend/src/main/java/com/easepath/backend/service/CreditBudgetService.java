@@ -0,0 +1,207 @@
+package com.easepath.backend.service;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.model.ProviderCreditWindow;
+
+/**
+ * Cluster-wide upstream credit budget for the job search providers.
+ * Every replica reserves a credit with an atomic conditional upsert of the
+ * provider's monthly window document before calling the provider, so the
+ * quota is shared instead of each node spending it independently.
+ * Background work (cache warming, refreshes) may only use the budget up to
+ * the interactive reserve; the rest is kept for users' searches.
+ */
+@Service
+public class CreditBudgetService {
+
+    private static final Logger log = LoggerFactory.getLogger(CreditBudgetService.class);
+
+    public enum Priority {
+        INTERACTIVE, BACKGROUND
+    }
+
+    private final MongoTemplate mongoTemplate;
+    private final Environment environment;
+    // Providers are resolved lazily: they depend on this service themselves
+    private final ObjectProvider<JobProvider> providers;
+    // Resolved easepath.credits.<provider>.monthly-limit values
+    private final Map<String, Long> monthlyLimits = new ConcurrentHashMap<>();
+    private final int interactiveReservePercent;
+
+    private final AtomicLong granted = new AtomicLong();
+    private final AtomicLong deniedInteractive = new AtomicLong();
+    private final AtomicLong deniedBackground = new AtomicLong();
+
+    public CreditBudgetService(MongoTemplate mongoTemplate, Environment environment,
+            ObjectProvider<JobProvider> providers,
+            @Value("${easepath.credits.interactive-reserve-percent:20}") int interactiveReservePercent) {
+        this.mongoTemplate = mongoTemplate;
+        this.environment = environment;
+        this.providers = providers;
+        this.interactiveReservePercent = interactiveReservePercent;
+    }
+
+    /**
+     * The provider's monthly credit limit from
+     * easepath.credits.&lt;provider&gt;.monthly-limit, or 0 if it has none, so
+     * a new provider bean is budgeted by configuration alone.
+     */
+    public long monthlyLimit(String provider) {
+        return monthlyLimits.computeIfAbsent(provider, name -> environment.getProperty(
+                "easepath.credits." + name + ".monthly-limit", Long.class, 0L));
+    }
+
+    /**
+     * Reserve one credit for a call to the provider. Returns false if the
+     * budget for this priority is spent. Providers without a configured limit
+     * are not tracked.
+     */
+    public boolean tryAcquire(String provider, Priority priority) {
+        long limit = monthlyLimit(provider);
+        if (limit <= 0) {
+            return true;
+        }
+
+        long ceiling = priority == Priority.INTERACTIVE
+                ? limit
+                : limit * (100 - interactiveReservePercent) / 100;
+
+        try {
+            ProviderCreditWindow window = reserve(provider, limit, ceiling);
+            if (window == null) {
+                (priority == Priority.INTERACTIVE ? deniedInteractive : deniedBackground).incrementAndGet();
+                log.warn("{} credit budget spent for {} calls ({} limit this month)", provider, priority, ceiling);
+                return false;
+            }
+            granted.incrementAndGet();
+            return true;
+        } catch (Exception e) {
+            // Don't let a budget bookkeeping failure take search down with it
+            log.warn("Credit budget check failed for {}: {}", provider, e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Sync the shared counter with the provider's own view of the quota when it
+     * sends X-RateLimit-*-Remaining headers. Usage never goes backwards.
+     */
+    public void recordRateLimitHeaders(String provider, HttpHeaders headers) {
+        long limit = monthlyLimit(provider);
+        Long remaining = firstLongHeader(headers, "X-RateLimit-Requests-Remaining", "X-RateLimit-Remaining");
+        if (limit <= 0 || remaining == null) {
+            return;
+        }
+
+        try {
+            Update update = windowUpdate(provider, limit)
+                    .max("used", Math.max(0, limit - remaining))
+                    .set("reportedRemaining", remaining)
+                    .set("reportedAt", Instant.now());
+            mongoTemplate.upsert(Query.query(Criteria.where("_id").is(windowId(provider))), update,
+                    ProviderCreditWindow.class);
+        } catch (Exception e) {
+            log.warn("Failed to record rate limit headers for {}: {}", provider, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        List<Map<String, Object>> windows = new ArrayList<>();
+        providers.orderedStream().forEach(jobProvider -> {
+            String provider = jobProvider.getName();
+            long limit = monthlyLimit(provider);
+            Map<String, Object> window = new LinkedHashMap<>();
+            window.put("provider", provider);
+            window.put("monthlyLimit", limit > 0 ? limit : null);
+            if (limit > 0) {
+                ProviderCreditWindow doc = mongoTemplate.findById(windowId(provider), ProviderCreditWindow.class);
+                window.put("used", doc != null ? doc.getUsed() : 0);
+                window.put("backgroundCeiling", limit * (100 - interactiveReservePercent) / 100);
+                window.put("reportedRemaining", doc != null ? doc.getReportedRemaining() : null);
+            }
+            windows.add(window);
+        });
+        status.put("windows", windows);
+        status.put("granted", granted.get());
+        status.put("deniedInteractive", deniedInteractive.get());
+        status.put("deniedBackground", deniedBackground.get());
+        return status;
+    }
+
+    /**
+     * Take one credit from this month's window in a single round trip: a
+     * conditional increment that creates the window if no node has yet. Null
+     * if the window is at the ceiling - the condition then fails on an
+     * existing document, so the upsert collides with its id.
+     */
+    private ProviderCreditWindow reserve(String provider, long limit, long ceiling) {
+        Query query = Query.query(Criteria.where("_id").is(windowId(provider)).and("used").lt(ceiling));
+        Update update = windowUpdate(provider, limit).inc("used", 1).set("updatedAt", Instant.now());
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                return mongoTemplate.findAndModify(query, update, options, ProviderCreditWindow.class);
+            } catch (DuplicateKeyException e) {
+                // Either the window is full, or another node created it at the same moment: check once more
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The window document's fields for when an update creates it.
+     */
+    private static Update windowUpdate(String provider, long limit) {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        return new Update()
+                .setOnInsert("provider", provider)
+                .setOnInsert("windowStart", month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC))
+                .setOnInsert("expireAt", month.plusMonths(2).atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC))
+                .set("creditLimit", limit);
+    }
+
+    private String windowId(String provider) {
+        return provider + "|" + YearMonth.now(ZoneOffset.UTC);
+    }
+
+    private Long firstLongHeader(HttpHeaders headers, String... names) {
+        if (headers == null) {
+            return null;
+        }
+        for (String name : names) {
+            String value = headers.getFirst(name);
+            if (value != null) {
+                try {
+                    return Long.parseLong(value.trim());
+                } catch (NumberFormatException e) {
+                    // try the next header
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,266 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
+import com.easepath.backend.model.FieldMappingCacheDocument;
+import com.easepath.backend.model.FieldMappingCorrectionDocument;
+import com.easepath.backend.repository.FieldMappingCacheRepository;
+import com.easepath.backend.util.ProfileFields;
+import com.easepath.backend.util.TtlUtils;
+
+/**
+ * Cache of form field -> profile field decisions, keyed by a signature of
+ * each field's descriptors. Popular ATS forms (Greenhouse, Lever, Workday)
+ * reuse the same fields for every job and every applicant, so after the first
+ * user only fields nobody has seen before go to OpenAI.
+ * Two tiers like {@link CompletionCache}: a bounded in-process LRU in front of
+ * a Mongo collection with a TTL index. A field OpenAI found no profile field
+ * for is cached too, as null, so it isn't asked about again.
+ * Because every user shares a decision, a user's correction is only a vote;
+ * the decision changes once corrections-required users agree on a field.
+ */
+@Component
+public class FieldMappingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(FieldMappingCache.class);
+
+    // Changing the profile field list changes every signature, so old decisions
+    // made without the new fields aren't reused
+    private static final int KEYS_VERSION = ProfileFields.KEYS.hashCode();
+
+    private final FieldMappingCacheRepository repository;
+    private final MongoTemplate mongoTemplate;
+    private final LinkedHashMap<String, FieldMappingCacheDocument> memory;
+
+    private final AtomicLong forms = new AtomicLong();
+    private final AtomicLong formsFullyCached = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong mongoHits = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong corrections = new AtomicLong();
+    private final AtomicLong correctionsApplied = new AtomicLong();
+
+    @Value("${easepath.openai.field-mapping-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${easepath.openai.field-mapping-cache.ttl-hours:720}")
+    private long ttlHours;
+
+    // Distinct users who must name the same profile field before a shared decision is replaced
+    @Value("${easepath.openai.field-mapping-cache.corrections-required:3}")
+    private int correctionsRequired;
+
+    public FieldMappingCache(FieldMappingCacheRepository repository, MongoTemplate mongoTemplate,
+            @Value("${easepath.openai.field-mapping-cache.memory-entries:5000}") int memoryEntries) {
+        this.repository = repository;
+        this.mongoTemplate = mongoTemplate;
+        this.memory = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, FieldMappingCacheDocument> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * SHA-256 over a field's normalized descriptors, as 32 hex characters.
+     */
+    public static String signature(FormFieldInfo field) {
+        String descriptors = KEYS_VERSION + "\n" + normalize(field.getLabel()) + "\n" + normalize(field.getName())
+                + "\n" + normalize(field.getId()) + "\n" + normalize(field.getPlaceholder())
+                + "\n" + normalize(field.getType());
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(descriptors.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Cached decisions for the given signatures: signature -> profile field,
+     * with a null value for fields known to have no profile field. Signatures
+     * never seen are absent.
+     */
+    public Map<String, String> getAll(Collection<String> signatures) {
+        Map<String, String> found = new HashMap<>();
+        if (!enabled || signatures.isEmpty()) {
+            return found;
+        }
+        forms.incrementAndGet();
+        lookups.addAndGet(signatures.size());
+        Instant now = Instant.now();
+
+        List<String> missing = new ArrayList<>();
+        synchronized (this) {
+            for (String signature : signatures) {
+                FieldMappingCacheDocument entry = memory.get(signature);
+                if (entry != null && !TtlUtils.isExpired(entry.getExpireAt(), now)) {
+                    found.put(signature, entry.getProfileField());
+                } else {
+                    missing.add(signature);
+                }
+            }
+        }
+        memoryHits.addAndGet(found.size());
+
+        if (!missing.isEmpty()) {
+            try {
+                int before = found.size();
+                for (FieldMappingCacheDocument entry : repository.findAllById(missing)) {
+                    if (TtlUtils.isExpired(entry.getExpireAt(), now)) {
+                        continue;
+                    }
+                    found.put(entry.getId(), entry.getProfileField());
+                    synchronized (this) {
+                        memory.put(entry.getId(), entry);
+                    }
+                }
+                mongoHits.addAndGet(found.size() - before);
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                log.warn("Field mapping cache lookup failed: {}", e.getMessage());
+            }
+        }
+        if (found.size() == signatures.size()) {
+            formsFullyCached.incrementAndGet();
+        }
+        return found;
+    }
+
+    /**
+     * Store fresh decisions, keyed by signature; a null profile field records
+     * that none fits.
+     */
+    public void putAll(Map<String, String> profileFields, Map<String, String> labels) {
+        if (!enabled || profileFields.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant expireAt = now.plus(Duration.ofHours(ttlHours));
+        List<FieldMappingCacheDocument> entries = new ArrayList<>(profileFields.size());
+        profileFields.forEach((signature, profileField) -> entries.add(
+                new FieldMappingCacheDocument(signature, profileField, labels.get(signature), now, expireAt)));
+        synchronized (this) {
+            entries.forEach(entry -> memory.put(entry.getId(), entry));
+        }
+        try {
+            repository.saveAll(entries);
+            stores.addAndGet(entries.size());
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            log.warn("Field mapping cache store failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Record one user's correction of a field's decision. Each user has one
+     * vote per field, and the shared decision is only replaced once
+     * corrections-required users name the same profile field, so a single
+     * mistaken or malicious user can't misroute a form for everyone.
+     */
+    public void recordCorrection(FormFieldInfo field, String profileField, String userEmail) {
+        if (!enabled || userEmail == null || userEmail.isBlank()) {
+            return;
+        }
+        String signature = signature(field);
+        Instant now = Instant.now();
+        try {
+            // One atomic upsert, so concurrent votes are all counted
+            FieldMappingCorrectionDocument votes = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(signature)),
+                    new Update()
+                            .set("votes." + voter(userEmail), profileField)
+                            .set("updatedAt", now)
+                            .set("expireAt", now.plus(Duration.ofHours(ttlHours))),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true),
+                    FieldMappingCorrectionDocument.class);
+            corrections.incrementAndGet();
+
+            long agreeing = votes == null || votes.getVotes() == null ? 0
+                    : votes.getVotes().values().stream().filter(profileField::equals).count();
+            if (agreeing < correctionsRequired) {
+                return;
+            }
+            Map<String, String> profileFields = new HashMap<>();
+            profileFields.put(signature, profileField);
+            Map<String, String> labels = new HashMap<>();
+            labels.put(signature, field.getLabel());
+            putAll(profileFields, labels);
+            mongoTemplate.remove(Query.query(Criteria.where("_id").is(signature)),
+                    FieldMappingCorrectionDocument.class);
+            correctionsApplied.incrementAndGet();
+            log.info("Field mapping for '{}' changed to {} after {} agreeing corrections", field.getLabel(),
+                    profileField, agreeing);
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            log.warn("Field mapping correction failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * A user's vote key: a hash, so the collection holds no email addresses.
+     */
+    private static String voter(String userEmail) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256")
+                    .digest(normalize(userEmail).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long total = lookups.get();
+        long hits = memoryHits.get() + mongoHits.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("forms", forms.get());
+        // Forms answered without any OpenAI call
+        stats.put("formsFullyCached", formsFullyCached.get());
+        stats.put("fieldLookups", total);
+        stats.put("memoryHits", memoryHits.get());
+        stats.put("mongoHits", mongoHits.get());
+        stats.put("misses", total - hits);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hits / total);
+        stats.put("stores", stores.get());
+        stats.put("errors", errors.get());
+        stats.put("corrections", corrections.get());
+        stats.put("correctionsApplied", correctionsApplied.get());
+        synchronized (this) {
+            stats.put("memoryEntries", memory.size());
+        }
+        return stats;
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+}
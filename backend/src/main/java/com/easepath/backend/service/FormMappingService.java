@@ -24,9 +24,11 @@ public interface FormMappingService {
     void recordSuccess(String url);
     
     /**
-     * Record a user correction (decreases confidence, updates mapping).
+     * Record a user correction (decreases confidence, updates mapping). It
+     * counts as that user's vote for the shared field mapping cache; null for
+     * unauthenticated callers, whose corrections don't vote.
      */
-    void recordCorrection(String url, String fieldId, String correctProfileField);
+    void recordCorrection(String url, String fieldId, String correctProfileField, String userEmail);
     
     /**
      * Get existing mapping for a URL pattern.
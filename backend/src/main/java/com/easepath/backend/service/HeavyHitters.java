@@ -0,0 +1,100 @@
+package com.easepath.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving heavy-hitters sketch: tracks the most frequent items of a
+ * stream in a fixed number of counters. Any item whose true count exceeds
+ * total / capacity is guaranteed to be tracked, and a tracked item's count is
+ * overestimated by at most its recorded error.
+ * Counts can be halved periodically so the ranking follows recent traffic.
+ */
+public class HeavyHitters<V> {
+
+    /**
+     * A tracked item with its estimated count and the most it may be over by.
+     */
+    public record Entry<V>(String id, V value, long count, long error) {
+    }
+
+    private static final class Counter<V> {
+        V value;
+        long count;
+        long error;
+    }
+
+    private final int capacity;
+    private final Map<String, Counter<V>> counters = new HashMap<>();
+    private long total;
+
+    public HeavyHitters(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void offer(String id, V value) {
+        total++;
+        Counter<V> counter = counters.get(id);
+        if (counter != null) {
+            counter.count++;
+            counter.value = value;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counter = new Counter<>();
+            counter.value = value;
+            counter.count = 1;
+            counters.put(id, counter);
+            return;
+        }
+
+        // Take over the smallest counter; the new item inherits its count as error
+        String minId = null;
+        Counter<V> min = null;
+        for (Map.Entry<String, Counter<V>> entry : counters.entrySet()) {
+            if (min == null || entry.getValue().count < min.count) {
+                minId = entry.getKey();
+                min = entry.getValue();
+            }
+        }
+        counters.remove(minId);
+        min.error = min.count;
+        min.count++;
+        min.value = value;
+        counters.put(id, min);
+    }
+
+    /**
+     * Up to {@code k} items, most frequent first.
+     */
+    public synchronized List<Entry<V>> top(int k) {
+        List<Entry<V>> entries = new ArrayList<>(counters.size());
+        counters.forEach((id, counter) -> entries.add(new Entry<>(id, counter.value, counter.count, counter.error)));
+        entries.sort(Comparator.comparingLong((Entry<V> entry) -> entry.count()).reversed());
+        return entries.size() > k ? new ArrayList<>(entries.subList(0, k)) : entries;
+    }
+
+    /**
+     * Halve every count so old popularity fades. Items that drop to zero are
+     * forgotten.
+     */
+    public synchronized void decay() {
+        counters.values().forEach(counter -> {
+            counter.count /= 2;
+            counter.error /= 2;
+        });
+        counters.values().removeIf(counter -> counter.count == 0);
+        total /= 2;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    public synchronized long total() {
+        return total;
+    }
+}
@@ -0,0 +1,510 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Collapses near-identical postings that reach us under different job ids -
+ * the same job from JSearch and TheirStack, or syndicated across boards - to
+ * one canonical posting.
+ * Each posting gets a MinHash signature over word shingles of its title,
+ * employer and description. Signatures are split into bands and every band is
+ * hashed into a bucket, so candidates are found with one lookup per band
+ * instead of comparing against every known posting; a candidate only counts
+ * if the full signatures agree closely enough and the locations don't differ.
+ * Only canonical postings are tracked, in a bounded LRU that is loaded from
+ * Mongo on startup. A tracked posting costs about 1 KB, mostly its signature.
+ */
+@Component
+public class JobDeduplicator {
+
+    private static final Logger log = LoggerFactory.getLogger(JobDeduplicator.class);
+
+    private static final int SHINGLE_WORDS = 3;
+
+    // Boilerplate at the end of long descriptions (benefits, EEO) says little about the job
+    private static final int MAX_DESCRIPTION_CHARS = 4000;
+
+    // Ids kept per bucket; a collision with an unrelated posting mustn't hide the real duplicate
+    private static final int MAX_BUCKET_IDS = 8;
+
+    /**
+     * The postings of one result with duplicates collapsed, in result order.
+     */
+    public record Collapsed(List<JobPostingDocument> postings, int duplicates) {
+    }
+
+    // seq orders postings by when they were tracked, oldest first
+    private record Tracked(String id, int[] signature, String city, long seq) {
+    }
+
+    private final JobPostingStore jobPostingStore;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final int numHashes;
+    private final int bands;
+    private final int rows;
+    private final long[] seeds;
+
+    // Canonical postings by id, least recently seen first
+    private final LinkedHashMap<String, Tracked> canonical;
+    // Band hash -> canonical postings, all bands in one table
+    private final BandTable buckets = new BandTable();
+    private long trackedSeq;
+
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final AtomicLong checked = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+    private final AtomicLong candidatesRejected = new AtomicLong();
+
+    @Value("${easepath.jobs.dedup.enabled:true}")
+    private boolean enabled;
+
+    // Estimated Jaccard similarity of the shingle sets above which two postings are the same job
+    @Value("${easepath.jobs.dedup.similarity-threshold:0.8}")
+    private double similarityThreshold;
+
+    public JobDeduplicator(JobPostingStore jobPostingStore,
+            @Value("${easepath.jobs.dedup.num-hashes:128}") int numHashes,
+            @Value("${easepath.jobs.dedup.bands:16}") int bands,
+            @Value("${easepath.jobs.dedup.max-tracked:50000}") int maxTracked) {
+        if (bands <= 0 || numHashes % bands != 0) {
+            throw new IllegalArgumentException("easepath.jobs.dedup.num-hashes must be a multiple of bands");
+        }
+        this.jobPostingStore = jobPostingStore;
+        this.numHashes = numHashes;
+        this.bands = bands;
+        this.rows = numHashes / bands;
+
+        SplittableRandom random = new SplittableRandom(0x5EED_D3D0L);
+        this.seeds = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            seeds[i] = random.nextLong();
+        }
+
+        this.canonical = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tracked> eldest) {
+                if (size() <= maxTracked) {
+                    return false;
+                }
+                unbucket(eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled || !loading.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofPlatform().name("job-dedup-load").daemon(true).start(() -> {
+            long start = System.currentTimeMillis();
+            AtomicLong loaded = new AtomicLong();
+            try {
+                jobPostingStore.forEachPosting(posting -> {
+                    if (posting.getDuplicateOf() == null) {
+                        int[] signature = signature(posting);
+                        synchronized (this) {
+                            if (!canonical.containsKey(posting.getId())) {
+                                track(posting.getId(), signature, normalizedCity(posting));
+                                loaded.incrementAndGet();
+                            }
+                        }
+                    }
+                });
+                log.info("Job dedup signatures loaded: {} postings in {} ms", loaded.get(),
+                        System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                log.warn("Loading job dedup signatures failed: {}", e.getMessage());
+            } finally {
+                loading.set(false);
+            }
+        });
+    }
+
+    /**
+     * Collapse duplicates in a freshly stored result. Postings matching one
+     * seen earlier are replaced by that canonical posting (read back from the
+     * store if it isn't in this result) and recorded as its duplicates, and
+     * every canonical posting appears once.
+     */
+    public Collapsed collapse(List<JobPostingDocument> postings, Duration retention) {
+        if (!enabled || postings.isEmpty()) {
+            return new Collapsed(postings, 0);
+        }
+
+        // Signatures are the expensive part; compute them before taking the lock
+        List<int[]> signatures = new ArrayList<>(postings.size());
+        for (JobPostingDocument posting : postings) {
+            signatures.add(signature(posting));
+        }
+        checked.addAndGet(postings.size());
+
+        Map<String, String> duplicateOf = new LinkedHashMap<>();
+        synchronized (this) {
+            for (int i = 0; i < postings.size(); i++) {
+                JobPostingDocument posting = postings.get(i);
+                String city = normalizedCity(posting);
+                String match = findMatch(posting.getId(), signatures.get(i), city);
+                if (match != null) {
+                    duplicateOf.put(posting.getId(), match);
+                } else {
+                    track(posting.getId(), signatures.get(i), city);
+                }
+            }
+        }
+        if (duplicateOf.isEmpty()) {
+            return new Collapsed(postings, 0);
+        }
+
+        Map<String, JobPostingDocument> byId = new HashMap<>();
+        for (JobPostingDocument posting : postings) {
+            byId.put(posting.getId(), posting);
+        }
+        Set<String> missing = new LinkedHashSet<>(duplicateOf.values());
+        missing.removeAll(byId.keySet());
+        if (!missing.isEmpty()) {
+            for (JobPostingDocument stored : jobPostingStore.findAllById(missing)) {
+                byId.put(stored.getId(), stored);
+            }
+        }
+
+        // A canonical posting the TTL index has already removed can't stand in;
+        // the first of its duplicates takes over
+        Map<String, String> takenOver = new HashMap<>();
+        for (Map.Entry<String, String> entry : new ArrayList<>(duplicateOf.entrySet())) {
+            String canonicalId = entry.getValue();
+            if (byId.containsKey(canonicalId)) {
+                continue;
+            }
+            String replacement = takenOver.get(canonicalId);
+            if (replacement != null) {
+                duplicateOf.put(entry.getKey(), replacement);
+                continue;
+            }
+            duplicateOf.remove(entry.getKey());
+            takenOver.put(canonicalId, entry.getKey());
+            int index = indexOf(postings, entry.getKey());
+            synchronized (this) {
+                Tracked gone = canonical.remove(canonicalId);
+                if (gone != null) {
+                    unbucket(gone);
+                }
+                track(entry.getKey(), signatures.get(index), normalizedCity(postings.get(index)));
+            }
+        }
+        if (duplicateOf.isEmpty()) {
+            return new Collapsed(postings, 0);
+        }
+
+        Map<String, JobPostingDocument> result = new LinkedHashMap<>();
+        for (JobPostingDocument posting : postings) {
+            JobPostingDocument kept = byId.get(duplicateOf.getOrDefault(posting.getId(), posting.getId()));
+            result.putIfAbsent(kept.getId(), kept);
+        }
+        jobPostingStore.markDuplicates(duplicateOf, retention);
+        collapsed.addAndGet(duplicateOf.size());
+        return new Collapsed(new ArrayList<>(result.values()), duplicateOf.size());
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedPostings", canonical.size());
+        stats.put("estimatedBytes", estimatedBytes());
+        stats.put("checked", checked.get());
+        stats.put("duplicatesCollapsed", collapsed.get());
+        stats.put("candidatesRejected", candidatesRejected.get());
+        stats.put("loading", loading.get());
+        return stats;
+    }
+
+    /**
+     * The canonical posting this one duplicates, or null. Postings already
+     * tracked as canonical are never their own duplicate.
+     */
+    private String findMatch(String id, int[] signature, String city) {
+        // get() rather than containsKey() so a canonical seen again stays in the LRU
+        if (canonical.get(id) != null) {
+            return null;
+        }
+        Set<Tracked> candidates = new LinkedHashSet<>();
+        for (int band = 0; band < bands; band++) {
+            buckets.collect(bandHash(signature, band), candidates);
+        }
+        String best = null;
+        double bestSimilarity = similarityThreshold;
+        for (Tracked other : candidates) {
+            // Also moves the candidate up the LRU
+            canonical.get(other.id());
+            // The same templated posting in another city is a different job
+            if (city != null && other.city() != null && !city.equals(other.city())) {
+                candidatesRejected.incrementAndGet();
+                continue;
+            }
+            double similarity = similarity(signature, other.signature());
+            if (similarity >= bestSimilarity) {
+                best = other.id();
+                bestSimilarity = similarity;
+            } else {
+                candidatesRejected.incrementAndGet();
+            }
+        }
+        return best;
+    }
+
+    private void track(String id, int[] signature, String city) {
+        Tracked posting = new Tracked(id, signature, city, trackedSeq++);
+        Tracked previous = canonical.put(id, posting);
+        if (previous != null) {
+            unbucket(previous);
+        }
+        for (int band = 0; band < bands; band++) {
+            buckets.add(bandHash(signature, band), posting);
+        }
+    }
+
+    private void unbucket(Tracked posting) {
+        for (int band = 0; band < bands; band++) {
+            buckets.remove(bandHash(posting.signature(), band), posting);
+        }
+    }
+
+    /**
+     * Rough heap use: per tracked posting its signature, id, city and LRU
+     * entry, plus the band table's arrays.
+     */
+    private long estimatedBytes() {
+        long perPosting = 16 + 4L * numHashes + 200;
+        return canonical.size() * perPosting + buckets.estimatedBytes();
+    }
+
+    private int[] signature(JobPostingDocument posting) {
+        int[] signature = new int[numHashes];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (long shingle : shingles(posting)) {
+            for (int i = 0; i < numHashes; i++) {
+                int hash = (int) (mix(shingle ^ seeds[i]) >>> 33);
+                if (hash < signature[i]) {
+                    signature[i] = hash;
+                }
+            }
+        }
+        return signature;
+    }
+
+    private Set<Long> shingles(JobPostingDocument posting) {
+        String description = "";
+        try {
+            description = objectMapper.readTree(posting.getJobJson()).path("job_description").asText("");
+            if (description.length() > MAX_DESCRIPTION_CHARS) {
+                description = description.substring(0, MAX_DESCRIPTION_CHARS);
+            }
+        } catch (Exception e) {
+            // Title and employer alone still catch exact reposts
+        }
+        List<String> words = new ArrayList<>();
+        addWords(words, posting.getTitle());
+        addWords(words, posting.getEmployerName());
+        addWords(words, description);
+
+        Set<Long> shingles = new LinkedHashSet<>();
+        if (words.size() < SHINGLE_WORDS) {
+            shingles.add(hashWords(words, 0, words.size()));
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_WORDS <= words.size(); i++) {
+            shingles.add(hashWords(words, i, i + SHINGLE_WORDS));
+        }
+        return shingles;
+    }
+
+    private static void addWords(List<String> words, String text) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+    }
+
+    /**
+     * Hash of a shingle. Only the order within it counts, not where it sits in
+     * the text, so an extra word earlier on ("Google LLC") doesn't change the
+     * shingles after it.
+     */
+    private static long hashWords(List<String> words, int from, int to) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int i = from; i < to; i++) {
+            hash = mix(hash ^ words.get(i).hashCode()) + (i - from);
+        }
+        return hash;
+    }
+
+    private long bandHash(int[] signature, int band) {
+        long hash = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            hash = mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+
+    private static double similarity(int[] a, int[] b) {
+        int same = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / a.length;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static String normalizedCity(JobPostingDocument posting) {
+        String city = posting.getCity();
+        return city == null || city.isBlank() ? null : city.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int indexOf(List<JobPostingDocument> postings, String id) {
+        for (int i = 0; i < postings.size(); i++) {
+            if (postings.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Posting " + id + " not in result");
+    }
+
+    /**
+     * Band hash -> tracked postings, open-addressed over a primitive long
+     * array so an entry costs two array slots instead of a boxed key, a map
+     * node and a list. Postings sharing a hash sit in the same probe run, up
+     * to MAX_BUCKET_IDS of them. Band hashes are already mixed, so their low
+     * bits pick the slot. Callers hold the deduplicator's lock.
+     */
+    private static final class BandTable {
+
+        private long[] keys = new long[1024];
+        private Tracked[] values = new Tracked[1024];
+        private int size;
+
+        void add(long key, Tracked posting) {
+            // A full bucket drops its oldest posting, as the LRU would first
+            int count = 0;
+            Tracked oldest = null;
+            for (int i = slot(key); values[i] != null; i = next(i)) {
+                if (keys[i] == key) {
+                    count++;
+                    if (oldest == null || values[i].seq() < oldest.seq()) {
+                        oldest = values[i];
+                    }
+                }
+            }
+            if (count >= MAX_BUCKET_IDS) {
+                remove(key, oldest);
+            }
+            if ((size + 1) * 2 > values.length) {
+                resize();
+            }
+            insert(key, posting);
+        }
+
+        void collect(long key, Set<Tracked> into) {
+            for (int i = slot(key); values[i] != null; i = next(i)) {
+                if (keys[i] == key) {
+                    into.add(values[i]);
+                }
+            }
+        }
+
+        void remove(long key, Tracked posting) {
+            int i = slot(key);
+            while (values[i] != null && (keys[i] != key || values[i] != posting)) {
+                i = next(i);
+            }
+            if (values[i] == null) {
+                return;
+            }
+            values[i] = null;
+            size--;
+            // Shift the rest of the probe run back so no lookup stops at the hole
+            int hole = i;
+            for (int j = next(i); values[j] != null; j = next(j)) {
+                int home = slot(keys[j]);
+                boolean homeAfterHole = hole <= j ? home > hole && home <= j : home > hole || home <= j;
+                if (!homeAfterHole) {
+                    keys[hole] = keys[j];
+                    values[hole] = values[j];
+                    values[j] = null;
+                    hole = j;
+                }
+            }
+        }
+
+        long estimatedBytes() {
+            // A long key and a reference per slot
+            return keys.length * 12L;
+        }
+
+        private void insert(long key, Tracked posting) {
+            int i = slot(key);
+            while (values[i] != null) {
+                i = next(i);
+            }
+            keys[i] = key;
+            values[i] = posting;
+            size++;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Tracked[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Tracked[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    insert(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private int slot(long key) {
+            return (int) key & (keys.length - 1);
+        }
+
+        private int next(int i) {
+            return (i + 1) & (keys.length - 1);
+        }
+    }
+}
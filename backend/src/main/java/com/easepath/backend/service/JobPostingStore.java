@@ -0,0 +1,263 @@
+package com.easepath.backend.service;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.easepath.backend.repository.JobPostingRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Normalized store for job postings. Search results are split into one
+ * document per posting in the "jobs" collection, so a posting returned by
+ * several searches is stored once and can be looked up by its job id; the
+ * search cache keeps only the ordered ids and the response is reassembled
+ * from here.
+ */
+@Service
+public class JobPostingStore {
+
+    private static final Logger log = LoggerFactory.getLogger(JobPostingStore.class);
+
+    private final JobPostingRepository jobPostingRepository;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong postingsUpserted = new AtomicLong();
+    private final AtomicLong resultsAssembled = new AtomicLong();
+    private final AtomicLong missingPostings = new AtomicLong();
+    private final AtomicLong duplicatesMarked = new AtomicLong();
+
+    public JobPostingStore(JobPostingRepository jobPostingRepository, MongoTemplate mongoTemplate) {
+        this.jobPostingRepository = jobPostingRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = new ObjectMapper();
+    }
+
+    /**
+     * Upsert every posting in a JSearch-format result and return them in
+     * result order. Postings are kept for at least {@code retention} after
+     * they were last seen. Returns null if the result has no "data" array, in
+     * which case the caller should keep the raw result instead.
+     */
+    public List<JobPostingDocument> storeResult(String provider, String resultJson, Duration retention) {
+        Set<String> ids = new LinkedHashSet<>();
+        List<JobPostingDocument> postings = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(resultJson)) {
+            boolean sawData = false;
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                        sawData = true;
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            JobPostingDocument posting = toPosting(provider, objectMapper.readTree(parser));
+                            // The same posting twice in one page only needs storing once
+                            if (ids.add(posting.getId())) {
+                                postings.add(posting);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+            if (!sawData) {
+                return null;
+            }
+        } catch (Exception e) {
+            log.warn("Could not split job search result into postings: {}", e.getMessage());
+            return null;
+        }
+
+        if (!postings.isEmpty()) {
+            Instant now = Instant.now();
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobPostingDocument.class);
+            for (JobPostingDocument posting : postings) {
+                Update update = new Update()
+                        .set("provider", posting.getProvider())
+                        .set("title", posting.getTitle())
+                        .set("employerName", posting.getEmployerName())
+                        .set("city", posting.getCity())
+                        .set("state", posting.getState())
+                        .set("country", posting.getCountry())
+                        .set("employmentType", posting.getEmploymentType())
+                        .set("remote", posting.isRemote())
+                        .set("postedAt", posting.getPostedAt())
+                        .set("jobJson", posting.getJobJson())
+                        .setOnInsert("firstSeenAt", now)
+                        .set("lastSeenAt", now)
+                        .set("expireAt", now.plus(retention))
+                        // Re-evaluated by JobDeduplicator after every store
+                        .unset("duplicateOf");
+                bulk.upsert(Query.query(Criteria.where("_id").is(posting.getId())), update);
+            }
+            bulk.execute();
+            postingsUpserted.addAndGet(postings.size());
+        }
+        return postings;
+    }
+
+    /**
+     * Record postings as duplicates of their canonical posting, and keep each
+     * canonical posting around at least as long as the results now pointing
+     * at it instead of its duplicates.
+     */
+    public void markDuplicates(Map<String, String> duplicateOf, Duration retention) {
+        if (duplicateOf.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, JobPostingDocument.class);
+        duplicateOf.forEach((id, canonicalId) -> bulk.updateOne(Query.query(Criteria.where("_id").is(id)),
+                new Update().set("duplicateOf", canonicalId)));
+        for (String canonicalId : new LinkedHashSet<>(duplicateOf.values())) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(canonicalId)),
+                    new Update().set("lastSeenAt", now).max("expireAt", now.plus(retention)));
+        }
+        bulk.execute();
+        duplicatesMarked.addAndGet(duplicateOf.size());
+    }
+
+    /**
+     * Rebuild a JSearch-format result from stored postings, in the given
+     * order. Postings that have since been removed are left out.
+     */
+    public String assembleResult(List<String> jobIds) {
+        resultsAssembled.incrementAndGet();
+        Map<String, String> jobJsonById = new LinkedHashMap<>();
+        for (JobPostingDocument posting : jobPostingRepository.findAllById(jobIds)) {
+            jobJsonById.put(posting.getId(), posting.getJobJson());
+        }
+        return writeResult(jobIds, jobJsonById);
+    }
+
+    /**
+     * Build the same result {@link #assembleResult} would from postings
+     * already in hand, without reading them back.
+     */
+    public String assemblePostings(List<JobPostingDocument> postings) {
+        Map<String, String> jobJsonById = new LinkedHashMap<>();
+        for (JobPostingDocument posting : postings) {
+            jobJsonById.put(posting.getId(), posting.getJobJson());
+        }
+        return writeResult(new ArrayList<>(jobJsonById.keySet()), jobJsonById);
+    }
+
+    private String writeResult(List<String> jobIds, Map<String, String> jobJsonById) {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("status", "OK");
+            generator.writeArrayFieldStart("data");
+            for (String id : jobIds) {
+                String jobJson = jobJsonById.get(id);
+                if (jobJson != null) {
+                    generator.writeRawValue(jobJson);
+                } else {
+                    missingPostings.incrementAndGet();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to assemble job search result", e);
+        }
+        return out.toString();
+    }
+
+    public Optional<JobPostingDocument> findById(String jobId) {
+        return jobPostingRepository.findById(jobId);
+    }
+
+    public List<JobPostingDocument> findAllById(Collection<String> jobIds) {
+        return jobPostingRepository.findAllById(jobIds);
+    }
+
+    /**
+     * Stream every stored posting, e.g. to rebuild an index. Mongo cursors
+     * keep memory flat however large the collection gets.
+     */
+    public void forEachPosting(Consumer<JobPostingDocument> action) {
+        try (Stream<JobPostingDocument> postings = mongoTemplate.stream(new Query(), JobPostingDocument.class)) {
+            postings.forEach(action);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("storedPostings", mongoTemplate.estimatedCount(JobPostingDocument.class));
+        stats.put("postingsUpserted", postingsUpserted.get());
+        stats.put("resultsAssembled", resultsAssembled.get());
+        stats.put("missingPostings", missingPostings.get());
+        stats.put("duplicatesMarked", duplicatesMarked.get());
+        return stats;
+    }
+
+    private JobPostingDocument toPosting(String provider, JsonNode job) throws Exception {
+        String jobJson = objectMapper.writeValueAsString(job);
+
+        JobPostingDocument posting = new JobPostingDocument();
+        String jobId = job.path("job_id").asText("");
+        // Postings without an id are keyed by their content so they still dedupe
+        posting.setId(jobId.isEmpty() ? provider + ":" + contentHash(jobJson) : jobId);
+        posting.setProvider(provider);
+        posting.setTitle(job.path("job_title").asText(null));
+        posting.setEmployerName(job.path("employer_name").asText(null));
+        posting.setCity(job.path("job_city").asText(null));
+        posting.setState(job.path("job_state").asText(null));
+        posting.setCountry(job.path("job_country").asText(null));
+        posting.setEmploymentType(job.path("job_employment_type").asText(null));
+        posting.setRemote(job.path("job_is_remote").asBoolean(false));
+        posting.setPostedAt(parseInstant(job.path("job_posted_at_datetime_utc").asText("")));
+        posting.setJobJson(jobJson);
+        return posting;
+    }
+
+    private Instant parseInstant(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private String contentHash(String jobJson) throws Exception {
+        byte[] bytes = MessageDigest.getInstance("SHA-256").digest(jobJson.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(bytes, 0, 16);
+    }
+}
@@ -0,0 +1,31 @@
+package com.easepath.backend.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * An upstream source of job postings. Every provider answers in the JSearch
+ * response format - {"status": ..., "data": [job, ...]} with JSearch field
+ * names - which is the common job model the rest of the pipeline works with:
+ * JobPostingStore normalizes each job into a JobPostingDocument, and
+ * JobSearchCoordinator merges the postings of all providers into one result.
+ * Adding a source means adding a bean implementing this interface, plus
+ * easepath.credits.&lt;name&gt;.monthly-limit if its calls are metered.
+ */
+public interface JobProvider {
+
+    /**
+     * Stable id used for circuit breakers, credit budgets and stats.
+     */
+    String getName();
+
+    /**
+     * Whether the provider is configured (e.g. has an API key) and should be
+     * called.
+     */
+    boolean isEnabled();
+
+    /**
+     * One page of results for a single-page search key, in JSearch format.
+     */
+    Mono<String> search(JobSearchKey key);
+}
@@ -0,0 +1,306 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.easepath.backend.service.CreditBudgetService.Priority;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Fans a search out to every enabled {@link JobProvider} at once and merges
+ * their answers into one ranked, de-duplicated list of postings.
+ * All providers share one deadline, and once the first usable answer is in
+ * the rest only get a short merge window, so a slow source can add results
+ * but never holds a search up for long. Each provider's postings are stored
+ * and collapsed to their canonical postings as they arrive; the lists are
+ * then fused by reciprocal rank, so a job several providers return near the
+ * top ranks above one only a single provider has.
+ * Fanning out spends a credit with every provider on every cache miss. That
+ * buys interactive searches latency and coverage; background searches, which
+ * nobody waits for, instead try the providers one at a time and stop at the
+ * first answer, as the old fallback chain did.
+ */
+@Service
+public class JobSearchCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSearchCoordinator.class);
+
+    // Reciprocal rank fusion constant; damps the gap between the first few ranks
+    private static final int RRF_K = 60;
+
+    /**
+     * The merged postings of one search, best first, and which providers
+     * answered in time.
+     */
+    public record MergedResult(List<JobPostingDocument> postings, List<String> providers) {
+    }
+
+    /**
+     * One provider's stored postings, collapsed to canonical ids, in its own
+     * order.
+     */
+    private record ProviderPostings(String provider, int rank, List<JobPostingDocument> postings) {
+    }
+
+    private static final class ProviderStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong answered = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong late = new AtomicLong();
+        final AtomicLong latencyMsTotal = new AtomicLong();
+        final AtomicLong maxLatencyMs = new AtomicLong();
+        final AtomicLong postingsReturned = new AtomicLong();
+        final AtomicLong postingsMerged = new AtomicLong();
+        final AtomicLong postingsOnlyHere = new AtomicLong();
+    }
+
+    private final List<JobProvider> providers;
+    private final ProviderHealthRegistry providerHealth;
+    private final CreditBudgetService creditBudget;
+    private final JobPostingStore jobPostingStore;
+    private final JobDeduplicator jobDeduplicator;
+    private final Map<String, ProviderStats> stats = new ConcurrentHashMap<>();
+
+    private final AtomicLong searches = new AtomicLong();
+    private final AtomicLong noAnswer = new AtomicLong();
+    private final AtomicLong deadlineExceeded = new AtomicLong();
+    private final AtomicLong sequentialSearches = new AtomicLong();
+
+    // Total time budget for one upstream search across all providers
+    @Value("${easepath.jobs.search.deadline-ms:10000}")
+    private long searchDeadlineMs;
+
+    // How long the other providers may still add results once the first has answered
+    @Value("${easepath.jobs.search.merge-window-ms:1500}")
+    private long mergeWindowMs;
+
+    // Whether background searches (refreshes, warming, prefetches) fan out too, spending a credit per provider
+    @Value("${easepath.jobs.search.background-fan-out:false}")
+    private boolean backgroundFanOut;
+
+    // Postings must outlive every cache document that can still reference
+    // them, including the 72 hours the TTL index keeps expired documents
+    @Value("${easepath.jobs.cache.hard-ttl-hours:168}")
+    private long cacheHardTtlHours;
+
+    public JobSearchCoordinator(List<JobProvider> providers, ProviderHealthRegistry providerHealth,
+            CreditBudgetService creditBudget, JobPostingStore jobPostingStore, JobDeduplicator jobDeduplicator) {
+        this.providers = providers;
+        this.providerHealth = providerHealth;
+        this.creditBudget = creditBudget;
+        this.jobPostingStore = jobPostingStore;
+        this.jobDeduplicator = jobDeduplicator;
+    }
+
+    /**
+     * Query every enabled provider whose circuit breaker allows it and merge
+     * whatever arrives in time; background searches stop at the first
+     * provider that answers. Empty if no provider gave a usable answer.
+     */
+    public Mono<MergedResult> search(JobSearchKey key, Priority priority) {
+        return Mono.defer(() -> {
+            Map<String, JobProvider> enabled = new LinkedHashMap<>();
+            for (JobProvider provider : providers) {
+                if (provider.isEnabled()) {
+                    enabled.put(provider.getName(), provider);
+                }
+            }
+            List<ProviderCircuitBreaker> ranked = providerHealth.rank(new ArrayList<>(enabled.keySet()));
+            if (ranked.isEmpty()) {
+                log.error("❌ No job search provider available for: {} (circuit breakers open)", key.query());
+                return Mono.empty();
+            }
+            searches.incrementAndGet();
+
+            Set<String> called = ConcurrentHashMap.newKeySet();
+            Sinks.One<Long> firstAnswer = Sinks.one();
+            List<Mono<ProviderPostings>> calls = new ArrayList<>();
+            for (int rank = 0; rank < ranked.size(); rank++) {
+                ProviderCircuitBreaker breaker = ranked.get(rank);
+                calls.add(call(enabled.get(breaker.getName()), breaker, rank, key, priority, called)
+                        .doOnNext(result -> firstAnswer.tryEmitValue(0L))
+                        .onErrorResume(e -> Mono.empty()));
+            }
+
+            Mono<Long> deadline = Mono.delay(Duration.ofMillis(searchDeadlineMs))
+                    .doOnNext(tick -> deadlineExceeded.incrementAndGet());
+            Flux<ProviderPostings> answers;
+            if (priority == Priority.BACKGROUND && !backgroundFanOut) {
+                // Nobody is waiting: one provider at a time, healthiest first, until one answers
+                sequentialSearches.incrementAndGet();
+                answers = Flux.concat(calls).take(1).takeUntilOther(deadline);
+            } else {
+                Mono<Long> windowClosed = firstAnswer.asMono().then(Mono.delay(Duration.ofMillis(mergeWindowMs)));
+                answers = Flux.merge(calls).takeUntilOther(Mono.firstWithValue(windowClosed, deadline));
+            }
+
+            return answers
+                    .collectList()
+                    // Hand back half-open trial slots for providers we ended up not calling
+                    .doFinally(signal -> ranked.stream()
+                            .filter(breaker -> !called.contains(breaker.getName()))
+                            .forEach(ProviderCircuitBreaker::recordCancelled))
+                    .flatMap(results -> {
+                        if (results.isEmpty()) {
+                            noAnswer.incrementAndGet();
+                            log.error("❌ All job search APIs failed for: {}", key.query());
+                            return Mono.empty();
+                        }
+                        return Mono.just(merge(results));
+                    });
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("searches", searches.get());
+        result.put("noAnswer", noAnswer.get());
+        result.put("deadlineExceeded", deadlineExceeded.get());
+        // Background searches that tried providers one at a time instead of fanning out
+        result.put("sequentialSearches", sequentialSearches.get());
+        result.put("mergeWindowMs", mergeWindowMs);
+        Map<String, Object> perProvider = new LinkedHashMap<>();
+        for (JobProvider provider : providers) {
+            ProviderStats s = stats(provider.getName());
+            long answeredCalls = s.answered.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("enabled", provider.isEnabled());
+            entry.put("calls", s.calls.get());
+            entry.put("answered", answeredCalls);
+            entry.put("failed", s.failed.get());
+            entry.put("late", s.late.get());
+            entry.put("avgLatencyMs", answeredCalls == 0 ? 0 : s.latencyMsTotal.get() / answeredCalls);
+            entry.put("maxLatencyMs", s.maxLatencyMs.get());
+            entry.put("postingsReturned", s.postingsReturned.get());
+            entry.put("postingsMerged", s.postingsMerged.get());
+            entry.put("postingsOnlyFromThisProvider", s.postingsOnlyHere.get());
+            perProvider.put(provider.getName(), entry);
+        }
+        result.put("providers", perProvider);
+        result.put("dedup", jobDeduplicator.getStats());
+        return result;
+    }
+
+    /**
+     * Reserve a credit for the provider call, then report its outcome and
+     * latency to the provider's circuit breaker and store its postings. An
+     * answer that isn't a JSearch-format result counts as a failure; a call
+     * cut off by the merge window or skipped for lack of budget counts as
+     * neither.
+     */
+    private Mono<ProviderPostings> call(JobProvider provider, ProviderCircuitBreaker breaker, int rank,
+            JobSearchKey key, Priority priority, Set<String> called) {
+        String name = provider.getName();
+        ProviderStats s = stats(name);
+        // The budget check is a Mongo round trip, so keep it off the event loop
+        return Mono.fromCallable(() -> creditBudget.tryAcquire(name, priority))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(allowed -> {
+                    if (!allowed) {
+                        return Mono.<ProviderPostings>empty();
+                    }
+                    called.add(name);
+                    s.calls.incrementAndGet();
+                    long start = System.nanoTime();
+                    return Mono.defer(() -> provider.search(key))
+                            .filter(body -> !body.isEmpty())
+                            .flatMap(body -> JobSearchService.blocking(() -> store(name, body)))
+                            .doOnSuccess(postings -> {
+                                long latencyMs = (System.nanoTime() - start) / 1_000_000;
+                                if (postings != null) {
+                                    breaker.recordSuccess(latencyMs);
+                                    s.answered.incrementAndGet();
+                                    s.latencyMsTotal.addAndGet(latencyMs);
+                                    s.maxLatencyMs.accumulateAndGet(latencyMs, Math::max);
+                                    s.postingsReturned.addAndGet(postings.size());
+                                } else {
+                                    breaker.recordFailure(latencyMs, false);
+                                    s.failed.incrementAndGet();
+                                }
+                            })
+                            .doOnError(e -> {
+                                breaker.recordFailure((System.nanoTime() - start) / 1_000_000,
+                                        e instanceof WebClientResponseException.TooManyRequests);
+                                s.failed.incrementAndGet();
+                            })
+                            // Cut off by the merge window or deadline: neither a success nor a failure
+                            .doOnCancel(() -> {
+                                breaker.recordCancelled();
+                                s.late.incrementAndGet();
+                            })
+                            .map(postings -> new ProviderPostings(name, rank, postings));
+                });
+    }
+
+    /**
+     * Normalize a provider's answer into stored postings, collapsed to their
+     * canonical postings. Null if the answer has no job list.
+     */
+    private List<JobPostingDocument> store(String provider, String body) {
+        Duration retention = Duration.ofHours(cacheHardTtlHours).plusHours(72);
+        List<JobPostingDocument> postings = jobPostingStore.storeResult(provider, body, retention);
+        if (postings == null) {
+            return null;
+        }
+        // The same job from another provider or board is served once, as the posting seen first
+        return jobDeduplicator.collapse(postings, retention).postings();
+    }
+
+    /**
+     * Reciprocal rank fusion: every provider list adds 1 / (k + position) to
+     * each posting it contains. Ties keep the healthier provider's order.
+     */
+    private MergedResult merge(List<ProviderPostings> results) {
+        results.sort(Comparator.comparingInt(ProviderPostings::rank));
+
+        Map<String, JobPostingDocument> byId = new LinkedHashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        Map<String, List<String>> sources = new HashMap<>();
+        for (ProviderPostings result : results) {
+            List<JobPostingDocument> postings = result.postings();
+            for (int i = 0; i < postings.size(); i++) {
+                JobPostingDocument posting = postings.get(i);
+                byId.putIfAbsent(posting.getId(), posting);
+                scores.merge(posting.getId(), 1.0 / (RRF_K + i + 1), Double::sum);
+                sources.computeIfAbsent(posting.getId(), id -> new ArrayList<>(2)).add(result.provider());
+            }
+        }
+
+        // Stable sort: equal scores keep first-seen order
+        List<JobPostingDocument> merged = new ArrayList<>(byId.values());
+        merged.sort(Comparator.comparingDouble((JobPostingDocument posting) -> scores.get(posting.getId()))
+                .reversed());
+
+        for (JobPostingDocument posting : merged) {
+            List<String> from = sources.get(posting.getId());
+            from.forEach(provider -> stats(provider).postingsMerged.incrementAndGet());
+            if (from.size() == 1) {
+                stats(from.get(0)).postingsOnlyHere.incrementAndGet();
+            }
+        }
+        return new MergedResult(merged, results.stream().map(ProviderPostings::provider).toList());
+    }
+
+    private ProviderStats stats(String provider) {
+        return stats.computeIfAbsent(provider, name -> new ProviderStats());
+    }
+}
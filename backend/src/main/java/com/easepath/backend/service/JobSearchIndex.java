@@ -0,0 +1,671 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.model.JobPostingDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * In-process inverted index over every posting in the jobs collection, so a
+ * search phrased differently from anything cached can still be answered
+ * without an upstream call.
+ * Titles, employers, required skills, descriptions and locations are
+ * tokenized into per-term posting lists of doc ids. Location words in a
+ * search ("nurse in denver") must match a posting's city, state or country,
+ * and a search only counts as covered if a title or skill matches too. The remote flag, employment type and
+ * posted day are kept as bitmaps over the same doc ids, so filters are a few
+ * bitmap operations, and a cached unfiltered result can be narrowed to a
+ * filtered one without asking a provider. Postings are added as
+ * JobSearchService caches new results, and the whole index is rebuilt from
+ * Mongo on startup and then periodically to drop postings the TTL index has
+ * removed.
+ */
+@Component
+public class JobSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSearchIndex.class);
+
+    // Field bits stored per (term, doc) and how much a match in each counts
+    private static final int TITLE = 1;
+    private static final int EMPLOYER = 2;
+    private static final int SKILLS = 4;
+    private static final int DESCRIPTION = 8;
+    private static final int LOCATION = 16;
+    private static final int TOPIC = TITLE | EMPLOYER | SKILLS | DESCRIPTION;
+
+    // "nurse in denver", "nurse near denver": what follows names the place, not the job
+    private static final Pattern LOCATION_SEPARATOR = Pattern.compile("\\s(?:in|near)\\s");
+
+    // Only the start of long descriptions is indexed; it carries most of the signal
+    private static final int MAX_DESCRIPTION_CHARS = 4000;
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "at", "for", "in", "of", "on", "or",
+            "the", "to", "with", "job", "jobs");
+
+    /**
+     * Locally matched job ids, best first, and when the least recently seen of
+     * them was last returned by a provider.
+     */
+    public record LocalResult(List<String> jobIds, Instant oldestSeenAt) {
+    }
+
+    private final JobPostingStore jobPostingStore;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private IndexState state = new IndexState();
+
+    // Postings added while a rebuild is reading Mongo, replayed into the new index
+    private final List<JobPostingDocument> addedDuringRebuild = new ArrayList<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Instant lastRebuild = Instant.EPOCH;
+
+    private final AtomicLong lastBuildMillis = new AtomicLong(-1);
+    private final AtomicLong queries = new AtomicLong();
+    private final AtomicLong localAnswers = new AtomicLong();
+    private final AtomicLong queryNanos = new AtomicLong();
+    private final AtomicLong maxQueryNanos = new AtomicLong();
+    private final AtomicLong narrowedResults = new AtomicLong();
+
+    @Value("${easepath.jobs.local-index.enabled:true}")
+    private boolean enabled;
+
+    // A search is only answered locally if it matches at least this many postings per page
+    @Value("${easepath.jobs.local-index.min-results-per-page:10}")
+    private int minResultsPerPage;
+
+    // ...and only once the index knows enough postings to be representative
+    @Value("${easepath.jobs.local-index.min-postings:500}")
+    private int minPostings;
+
+    @Value("${easepath.jobs.local-index.rebuild-hours:24}")
+    private long rebuildHours;
+
+    // Postings not returned by any search for this long are treated as gone
+    @Value("${easepath.jobs.cache.hard-ttl-hours:168}")
+    private long maxPostingAgeHours;
+
+    public JobSearchIndex(JobPostingStore jobPostingStore) {
+        this.jobPostingStore = jobPostingStore;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Add or refresh postings that were just cached. Postings already in the
+     * index only have their last-seen time updated.
+     */
+    public void addAll(Collection<JobPostingDocument> postings) {
+        if (!enabled || postings.isEmpty()) {
+            return;
+        }
+        // Tokenize before taking the lock so searches aren't held up by parsing
+        List<Map<String, Integer>> termFields = new ArrayList<>();
+        for (JobPostingDocument posting : postings) {
+            termFields.add(fields(posting));
+        }
+        lock.writeLock().lock();
+        try {
+            int i = 0;
+            for (JobPostingDocument posting : postings) {
+                state.add(posting, termFields.get(i++));
+            }
+            if (rebuilding.get()) {
+                addedDuringRebuild.addAll(postings);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (Duration.between(lastRebuild, Instant.now()).toHours() >= rebuildHours) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * Job ids matching every term of the search, best match first, or null if
+     * the index can't answer it well enough and the providers should be asked.
+     */
+    public LocalResult search(JobSearchKey key) {
+        // Experience/degree requirements aren't indexed
+        if (!enabled || !key.jobRequirements().isEmpty() || dateCutoffDays(key.datePosted()) < 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        queries.incrementAndGet();
+        try {
+            String what = key.query();
+            String where = "";
+            Matcher separator = LOCATION_SEPARATOR.matcher(what);
+            int split = -1;
+            while (separator.find()) {
+                split = separator.start();
+                where = what.substring(separator.end());
+            }
+            if (split >= 0) {
+                what = what.substring(0, split);
+            }
+            List<String> terms = tokenize(what);
+            List<String> locationTerms = tokenize(where);
+            if (terms.isEmpty()) {
+                return null;
+            }
+            // Answer only the requested page(s), but only if every page up to them is full
+            int offset = (key.page() - 1) * minResultsPerPage;
+            int wanted = Integer.parseInt(key.numPages()) * minResultsPerPage;
+            long minLastSeen = Instant.now().minus(Duration.ofHours(maxPostingAgeHours)).getEpochSecond();
+
+            lock.readLock().lock();
+            try {
+                if (state.size() < minPostings) {
+                    return null;
+                }
+                BitSet filter = state.filter(key, Instant.now().getEpochSecond());
+                LocalResult result = state.search(terms, locationTerms, filter, offset, wanted, minLastSeen);
+                if (result != null) {
+                    localAnswers.incrementAndGet();
+                }
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            queryNanos.addAndGet(elapsed);
+            maxQueryNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * Postings per page of a search, both for local answers and for filtered
+     * pages narrowed from cached unfiltered ones.
+     */
+    public int resultsPerPage() {
+        return minResultsPerPage;
+    }
+
+    /**
+     * Apply a search's filters to the ids of a cached unfiltered result for the
+     * same query, keeping their order. Null if the filters can't be evaluated
+     * locally or any of the ids is unknown to the index.
+     */
+    public List<String> narrow(List<String> supersetIds, JobSearchKey key) {
+        if (!enabled || !key.jobRequirements().isEmpty() || dateCutoffDays(key.datePosted()) < 0) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            lock.readLock().lock();
+            try {
+                BitSet filter = state.filter(key, Instant.now().getEpochSecond());
+                List<String> narrowed = new ArrayList<>();
+                for (String jobId : supersetIds) {
+                    Integer doc = state.docIdByJobId.get(jobId);
+                    if (doc == null) {
+                        // Can't tell whether it passes the filters
+                        return null;
+                    }
+                    if (filter == null || filter.get(doc)) {
+                        narrowed.add(jobId);
+                    }
+                }
+                return narrowed;
+            } finally {
+                lock.readLock().unlock();
+            }
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            queryNanos.addAndGet(elapsed);
+            maxQueryNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    /**
+     * Count a filtered search answered from narrowed cached pages.
+     */
+    public void recordNarrowedResult() {
+        narrowedResults.incrementAndGet();
+    }
+
+    /**
+     * Build time, size and query latency, for sizing the heap.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        lock.readLock().lock();
+        try {
+            stats.put("postings", state.size());
+            stats.put("terms", state.terms.size());
+            stats.put("estimatedBytes", state.estimatedBytes());
+            stats.put("facets", state.facetStats());
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("lastBuildMillis", lastBuildMillis.get());
+        stats.put("lastRebuild", lastRebuild);
+        stats.put("rebuilding", rebuilding.get());
+        long queryCount = queries.get();
+        stats.put("queries", queryCount);
+        stats.put("localAnswers", localAnswers.get());
+        stats.put("narrowedResults", narrowedResults.get());
+        stats.put("avgQueryMicros", queryCount == 0 ? 0 : queryNanos.get() / queryCount / 1000);
+        stats.put("maxQueryMicros", maxQueryNanos.get() / 1000);
+        return stats;
+    }
+
+    /**
+     * Rebuild from the jobs collection on a background thread and swap the new
+     * index in once it is complete. Searches keep using the old one meanwhile.
+     */
+    private void rebuildAsync() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        lastRebuild = Instant.now();
+        Thread.ofPlatform().name("job-search-index-rebuild").daemon(true).start(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                IndexState rebuilt = new IndexState();
+                jobPostingStore.forEachPosting(posting -> {
+                    // Duplicates are served as their canonical posting, which is indexed itself
+                    if (posting.getDuplicateOf() == null) {
+                        rebuilt.add(posting, fields(posting));
+                    }
+                });
+
+                lock.writeLock().lock();
+                try {
+                    for (JobPostingDocument posting : addedDuringRebuild) {
+                        rebuilt.add(posting, fields(posting));
+                    }
+                    addedDuringRebuild.clear();
+                    state = rebuilt;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                lastBuildMillis.set(System.currentTimeMillis() - start);
+                log.info("Job search index rebuilt: {} postings, {} terms in {} ms", rebuilt.size(),
+                        rebuilt.terms.size(), lastBuildMillis.get());
+            } catch (Exception e) {
+                log.warn("Job search index rebuild failed: {}", e.getMessage());
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    addedDuringRebuild.clear();
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                rebuilding.set(false);
+            }
+        });
+    }
+
+    /**
+     * Term -> field bits for one posting.
+     */
+    private Map<String, Integer> fields(JobPostingDocument posting) {
+        Map<String, Integer> termFields = new HashMap<>();
+        addTerms(termFields, posting.getTitle(), TITLE);
+        addTerms(termFields, posting.getEmployerName(), EMPLOYER);
+        addTerms(termFields, posting.getCity(), LOCATION);
+        addTerms(termFields, posting.getState(), LOCATION);
+        addTerms(termFields, posting.getCountry(), LOCATION);
+        try {
+            JsonNode job = objectMapper.readTree(posting.getJobJson());
+            for (JsonNode skill : job.path("job_required_skills")) {
+                addTerms(termFields, skill.asText(), SKILLS);
+            }
+            String description = job.path("job_description").asText("");
+            if (description.length() > MAX_DESCRIPTION_CHARS) {
+                description = description.substring(0, MAX_DESCRIPTION_CHARS);
+            }
+            addTerms(termFields, description, DESCRIPTION);
+        } catch (Exception e) {
+            // Title and employer are still indexed
+        }
+        return termFields;
+    }
+
+    private static void addTerms(Map<String, Integer> termFields, String text, int field) {
+        for (String term : tokenize(text)) {
+            termFields.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        // Keep + and # so "c++" and "c#" survive
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^a-z0-9+#]+")) {
+            if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+                terms.add(token);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /**
+     * How many days back a JSearch date_posted filter reaches: 0 for "all",
+     * -1 for values we don't know how to evaluate.
+     */
+    private static int dateCutoffDays(String datePosted) {
+        return switch (datePosted) {
+            case "all" -> 0;
+            case "today" -> 1;
+            case "3days" -> 3;
+            case "week" -> 7;
+            case "month" -> 30;
+            default -> -1;
+        };
+    }
+
+    private static double fieldWeight(int fieldBits) {
+        double weight = 0;
+        if ((fieldBits & TITLE) != 0) {
+            weight += 3.0;
+        }
+        if ((fieldBits & EMPLOYER) != 0) {
+            weight += 2.0;
+        }
+        if ((fieldBits & SKILLS) != 0) {
+            weight += 2.0;
+        }
+        if ((fieldBits & DESCRIPTION) != 0) {
+            weight += 1.0;
+        }
+        if ((fieldBits & LOCATION) != 0) {
+            weight += 1.0;
+        }
+        return weight;
+    }
+
+    /**
+     * Doc ids in ascending order with the fields the term appeared in.
+     */
+    private static final class PostingList {
+        int[] docs = new int[4];
+        byte[] fields = new byte[4];
+        int size;
+
+        void add(int doc, int fieldBits) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            docs[size] = doc;
+            fields[size] = (byte) fieldBits;
+            size++;
+        }
+
+        int fieldsOf(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            return i >= 0 ? fields[i] : 0;
+        }
+    }
+
+    /**
+     * One generation of the index. Doc ids are assigned in insertion order so
+     * every posting list stays sorted.
+     */
+    private static final class IndexState {
+        final Map<String, Integer> docIdByJobId = new HashMap<>();
+        final List<String> jobIds = new ArrayList<>();
+        final Map<String, PostingList> terms = new HashMap<>();
+        // Terms some posting has in its city, state or country
+        final Set<String> locationTerms = new HashSet<>();
+        // Facet bitmaps over doc ids. Doc ids are dense, so plain bitsets stay
+        // at one bit per posting.
+        final BitSet remote = new BitSet();
+        final Map<String, BitSet> byEmploymentType = new HashMap<>();
+        final TreeMap<Long, BitSet> byPostedDay = new TreeMap<>();
+        long[] postedAt = new long[64];
+        long[] lastSeen = new long[64];
+        long postingEntries;
+        long termChars;
+
+        int size() {
+            return jobIds.size();
+        }
+
+        void add(JobPostingDocument posting, Map<String, Integer> termFields) {
+            Instant seen = posting.getLastSeenAt() != null ? posting.getLastSeenAt() : Instant.now();
+            Integer existing = docIdByJobId.get(posting.getId());
+            if (existing != null) {
+                lastSeen[existing] = Math.max(lastSeen[existing], seen.getEpochSecond());
+                return;
+            }
+
+            int doc = jobIds.size();
+            jobIds.add(posting.getId());
+            docIdByJobId.put(posting.getId(), doc);
+            if (doc == postedAt.length) {
+                postedAt = Arrays.copyOf(postedAt, doc * 2);
+                lastSeen = Arrays.copyOf(lastSeen, doc * 2);
+            }
+            postedAt[doc] = posting.getPostedAt() != null ? posting.getPostedAt().getEpochSecond() : 0;
+            lastSeen[doc] = seen.getEpochSecond();
+
+            if (posting.isRemote()) {
+                remote.set(doc);
+            }
+            if (posting.getEmploymentType() != null && !posting.getEmploymentType().isEmpty()) {
+                byEmploymentType.computeIfAbsent(posting.getEmploymentType().toUpperCase(Locale.ROOT),
+                        type -> new BitSet()).set(doc);
+            }
+            if (posting.getPostedAt() != null) {
+                byPostedDay.computeIfAbsent(Math.floorDiv(postedAt[doc], 86400L), day -> new BitSet()).set(doc);
+            }
+
+            termFields.forEach((term, fieldBits) -> {
+                PostingList list = terms.get(term);
+                if (list == null) {
+                    list = new PostingList();
+                    terms.put(term, list);
+                    termChars += term.length();
+                }
+                list.add(doc, fieldBits);
+                postingEntries++;
+                if ((fieldBits & LOCATION) != 0) {
+                    locationTerms.add(term);
+                }
+            });
+        }
+
+        /**
+         * Bitmap of postings passing the search's remote, employment type and
+         * posted-date filters, or null if it has none.
+         */
+        BitSet filter(JobSearchKey key, long nowSeconds) {
+            BitSet result = null;
+            if (key.remoteJobsOnly()) {
+                result = (BitSet) remote.clone();
+            }
+            if (!key.employmentTypes().isEmpty()) {
+                BitSet types = new BitSet();
+                for (String type : key.employmentTypes().split(",")) {
+                    BitSet typeBits = byEmploymentType.get(type);
+                    if (typeBits != null) {
+                        types.or(typeBits);
+                    }
+                }
+                result = and(result, types);
+            }
+            int days = dateCutoffDays(key.datePosted());
+            if (days > 0) {
+                long cutoff = nowSeconds - days * 86400L;
+                long cutoffDay = Math.floorDiv(cutoff, 86400L);
+                BitSet recent = new BitSet();
+                // Whole days after the cutoff day, then the part of the cutoff day that is inside the window
+                byPostedDay.tailMap(cutoffDay, false).values().forEach(recent::or);
+                BitSet boundary = byPostedDay.get(cutoffDay);
+                if (boundary != null) {
+                    for (int doc = boundary.nextSetBit(0); doc >= 0; doc = boundary.nextSetBit(doc + 1)) {
+                        if (postedAt[doc] >= cutoff) {
+                            recent.set(doc);
+                        }
+                    }
+                }
+                result = and(result, recent);
+            }
+            return result;
+        }
+
+        private static BitSet and(BitSet current, BitSet next) {
+            if (current == null) {
+                return next;
+            }
+            current.and(next);
+            return current;
+        }
+
+        Map<String, Object> facetStats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("remote", remote.cardinality());
+            Map<String, Integer> types = new LinkedHashMap<>();
+            byEmploymentType.forEach((type, bits) -> types.put(type, bits.cardinality()));
+            stats.put("employmentTypes", types);
+            stats.put("postedDays", byPostedDay.size());
+            stats.put("bitmapBytes", facetBytes());
+            return stats;
+        }
+
+        private long facetBytes() {
+            long bytes = remote.size() / 8;
+            for (BitSet bits : byEmploymentType.values()) {
+                bytes += bits.size() / 8;
+            }
+            for (BitSet bits : byPostedDay.values()) {
+                bytes += bits.size() / 8;
+            }
+            return bytes;
+        }
+
+        /**
+         * AND of all terms, restricted to the filter bitmap, ranked by
+         * tf-idf-style field weights and then by recency, skipping the first
+         * {@code offset}. Location terms must match a posting's location;
+         * other terms that name a known location ("nurse denver") must match
+         * its location or title, and the rest any text field. A posting only
+         * counts if a non-location term matches its title or skills. Null if
+         * fewer than {@code offset + wanted} postings match.
+         */
+        LocalResult search(List<String> queryTerms, List<String> queryLocationTerms, BitSet filter, int offset,
+                int wanted, long minLastSeen) {
+            List<PostingList> lists = new ArrayList<>();
+            List<Integer> allowedFields = new ArrayList<>();
+            for (String term : queryLocationTerms) {
+                PostingList list = terms.get(term);
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+                allowedFields.add(LOCATION);
+            }
+            for (String term : queryTerms) {
+                PostingList list = terms.get(term);
+                if (list == null) {
+                    return null;
+                }
+                lists.add(list);
+                allowedFields.add(locationTerms.contains(term) ? LOCATION | TITLE : TOPIC);
+            }
+            Integer[] order = new Integer[lists.size()];
+            for (int l = 0; l < order.length; l++) {
+                order[l] = l;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(lists.get(a).size, lists.get(b).size));
+
+            // Walk the rarest term's list and probe the others
+            PostingList rarest = lists.get(order[0]);
+            List<int[]> matches = new ArrayList<>();
+            List<Double> scores = new ArrayList<>();
+            for (int i = 0; i < rarest.size; i++) {
+                int doc = rarest.docs[i];
+                if (lastSeen[doc] < minLastSeen || (filter != null && !filter.get(doc))) {
+                    continue;
+                }
+                double score = 0;
+                boolean all = true;
+                boolean onTopic = false;
+                for (int o = 0; o < order.length && all; o++) {
+                    int l = order[o];
+                    int allowed = allowedFields.get(l);
+                    int fieldBits = (o == 0 ? rarest.fields[i] : lists.get(l).fieldsOf(doc)) & allowed;
+                    all = fieldBits != 0;
+                    score += idf(lists.get(l)) * fieldWeight(fieldBits);
+                    onTopic |= allowed == TOPIC && (fieldBits & (TITLE | SKILLS)) != 0;
+                }
+                if (all && onTopic) {
+                    matches.add(new int[] { doc, matches.size() });
+                    scores.add(score);
+                }
+            }
+            if (matches.size() < offset + wanted) {
+                return null;
+            }
+
+            matches.sort((a, b) -> {
+                int byScore = Double.compare(scores.get(b[1]), scores.get(a[1]));
+                return byScore != 0 ? byScore : Long.compare(postedAt[b[0]], postedAt[a[0]]);
+            });
+            List<String> ids = new ArrayList<>(wanted);
+            long oldestSeen = Long.MAX_VALUE;
+            for (int i = offset; i < offset + wanted; i++) {
+                int doc = matches.get(i)[0];
+                ids.add(jobIds.get(doc));
+                oldestSeen = Math.min(oldestSeen, lastSeen[doc]);
+            }
+            return new LocalResult(ids, Instant.ofEpochSecond(oldestSeen));
+        }
+
+        private double idf(PostingList list) {
+            return Math.log(1.0 + (double) jobIds.size() / list.size);
+        }
+
+        /**
+         * Rough heap use: posting arrays, term strings and map nodes, and the
+         * per-doc id and timestamp arrays.
+         */
+        long estimatedBytes() {
+            long postings = postingEntries * 5;
+            long termBytes = terms.size() * 96L + termChars * 2 + locationTerms.size() * 48L;
+            long docBytes = jobIds.size() * 120L + postedAt.length * 16L;
+            return postings + termBytes + docBytes + facetBytes();
+        }
+    }
+}
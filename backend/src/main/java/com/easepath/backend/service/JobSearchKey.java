@@ -0,0 +1,133 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Canonical form of job search parameters.
+ * Equivalent searches ("Software Engineer", "software engineer ", null vs
+ * empty filters, "PARTTIME,FULLTIME" vs "FULLTIME,PARTTIME") normalize to the
+ * same key, and {@link #hash()} gives a fixed-length id for the cache index.
+ * Results are cached one page at a time; {@link #pageKeys()} splits a
+ * multi-page search into its single-page keys.
+ */
+public record JobSearchKey(String query, int page, String numPages, String datePosted, boolean remoteJobsOnly,
+        String employmentTypes, String jobRequirements) {
+
+    // Bump when the canonical form changes so old hashes stop matching
+    private static final String VERSION = "v1";
+
+    // JSearch's own num_pages limit
+    private static final int MAX_PAGES = 20;
+
+    // Deepest page anyone may ask for; keeps provider page/offset math well inside int range
+    public static final int MAX_PAGE = 100;
+
+    public static JobSearchKey of(String query, String page, String numPages, String datePosted,
+            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
+        return new JobSearchKey(
+                normalizeText(query),
+                Math.min(Integer.parseInt(normalizePages(page)), MAX_PAGE),
+                normalizePages(numPages),
+                isBlank(datePosted) ? "all" : datePosted.trim().toLowerCase(Locale.ROOT),
+                "true".equalsIgnoreCase(remoteJobsOnly != null ? remoteJobsOnly.trim() : null),
+                normalizeList(employmentTypes, true),
+                normalizeList(jobRequirements, false));
+    }
+
+    /**
+     * Human-readable canonical form, stored alongside the hash for debugging.
+     */
+    public String canonical() {
+        // Page 1 keeps the original form so existing cache entries stay valid
+        return VERSION + "|q=" + query + "|pages=" + numPages + "|date=" + datePosted + "|remote=" + remoteJobsOnly
+                + "|types=" + employmentTypes + "|req=" + jobRequirements + (page > 1 ? "|page=" + page : "");
+    }
+
+    /**
+     * 128-bit SHA-256 prefix of the canonical form, as 32 hex characters.
+     */
+    public String hash() {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest(canonical().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Single-page keys for every page this search covers, in order.
+     */
+    public List<JobSearchKey> pageKeys() {
+        int count = Math.min(Integer.parseInt(numPages), MAX_PAGES);
+        List<JobSearchKey> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(forPage(page + i));
+        }
+        return keys;
+    }
+
+    /**
+     * The single-page key for another page of this search.
+     */
+    public JobSearchKey forPage(int otherPage) {
+        return new JobSearchKey(query, otherPage, "1", datePosted, remoteJobsOnly, employmentTypes, jobRequirements);
+    }
+
+    /**
+     * The same search without the remote, employment type and date filters.
+     */
+    public JobSearchKey unfiltered() {
+        return new JobSearchKey(query, page, numPages, "all", false, "", jobRequirements);
+    }
+
+    public boolean isFiltered() {
+        return remoteJobsOnly || !"all".equals(datePosted) || !employmentTypes.isEmpty();
+    }
+
+    /**
+     * The remote flag in the form the provider APIs expect, or null when off.
+     */
+    public String remoteJobsOnlyParam() {
+        return remoteJobsOnly ? "true" : null;
+    }
+
+    private static String normalizeText(String value) {
+        return isBlank(value) ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalizePages(String numPages) {
+        try {
+            int pages = Integer.parseInt(numPages.trim());
+            return String.valueOf(Math.max(1, pages));
+        } catch (NullPointerException | NumberFormatException e) {
+            return "1";
+        }
+    }
+
+    private static String normalizeList(String value, boolean upperCase) {
+        if (isBlank(value)) {
+            return "";
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(part -> !part.isEmpty())
+                .map(part -> upperCase ? part.toUpperCase(Locale.ROOT) : part.toLowerCase(Locale.ROOT))
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank() || "null".equals(value.trim());
+    }
+}
@@ -0,0 +1,189 @@
+package com.easepath.backend.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.model.JobSearchCache;
+
+/**
+ * In-process L1 cache that sits in front of the Mongo job_search_cache
+ * collection (L2).
+ * Entries are weighted by payload size and the total weight is bounded. When
+ * space is needed, a new entry is only admitted if it has been requested more
+ * often than the least recently used entries it would push out, so one-off
+ * searches can't flush the popular ones.
+ */
+@Component
+public class JobSearchL1Cache {
+
+    private static final Logger log = LoggerFactory.getLogger(JobSearchL1Cache.class);
+
+    // Rough per-entry overhead for the key, document fields and map node
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    private final long maxWeightBytes;
+    private final FrequencySketch sketch;
+    private final LinkedHashMap<String, JobSearchCache> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentWeight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong rejections = new AtomicLong();
+
+    public JobSearchL1Cache(@Value("${easepath.jobs.l1-cache.max-weight-mb:64}") long maxWeightMb,
+            @Value("${easepath.jobs.l1-cache.expected-entries:1024}") int expectedEntries) {
+        this.maxWeightBytes = maxWeightMb * 1024 * 1024;
+        this.sketch = new FrequencySketch(expectedEntries);
+        log.info("Job search L1 cache initialized with {} MB budget", maxWeightMb);
+    }
+
+    /**
+     * Look up a cached search result. Expired entries are dropped and reported
+     * as a miss.
+     */
+    public JobSearchCache get(String key) {
+        sketch.increment(key);
+
+        JobSearchCache entry;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry, Instant.now())) {
+                removeEntry(key);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+        }
+
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+
+    /**
+     * Look up an entry without counting it as a request.
+     */
+    public synchronized JobSearchCache peek(String key) {
+        JobSearchCache entry = entries.get(key);
+        return entry != null && !isExpired(entry, Instant.now()) ? entry : null;
+    }
+
+    /**
+     * Offer a search result to the cache. The entry may be rejected if the cache
+     * is full of entries that are more popular.
+     */
+    public void put(String key, JobSearchCache value) {
+        if (value == null || isExpired(value, Instant.now())) {
+            return;
+        }
+
+        long weight = weigh(key, value);
+        if (weight > maxWeightBytes) {
+            rejections.incrementAndGet();
+            return;
+        }
+
+        int candidateFrequency = sketch.frequency(key);
+
+        synchronized (this) {
+            JobSearchCache previous = entries.remove(key);
+            if (previous != null) {
+                currentWeight -= weigh(key, previous);
+            }
+
+            // Pick victims from the LRU end until the new entry fits
+            Instant now = Instant.now();
+            List<String> victims = new ArrayList<>();
+            long freed = 0;
+            Iterator<Map.Entry<String, JobSearchCache>> it = entries.entrySet().iterator();
+            while (currentWeight - freed + weight > maxWeightBytes && it.hasNext()) {
+                Map.Entry<String, JobSearchCache> eldest = it.next();
+                boolean expired = isExpired(eldest.getValue(), now);
+                if (!expired && previous == null && sketch.frequency(eldest.getKey()) >= candidateFrequency) {
+                    // The candidate is less popular than what it would displace
+                    rejections.incrementAndGet();
+                    return;
+                }
+                victims.add(eldest.getKey());
+                freed += weigh(eldest.getKey(), eldest.getValue());
+            }
+
+            for (String victim : victims) {
+                JobSearchCache removed = entries.get(victim);
+                removeEntry(victim);
+                if (isExpired(removed, now)) {
+                    expirations.incrementAndGet();
+                } else {
+                    evictions.incrementAndGet();
+                }
+            }
+
+            entries.put(key, value);
+            currentWeight += weight;
+        }
+    }
+
+    /**
+     * Drop a key from the cache, e.g. after the L2 entry was replaced.
+     */
+    public synchronized void invalidate(String key) {
+        removeEntry(key);
+    }
+
+    /**
+     * Snapshot of cache counters for the admin panel.
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+        synchronized (this) {
+            stats.put("entries", entries.size());
+            stats.put("weightBytes", currentWeight);
+        }
+        stats.put("maxWeightBytes", maxWeightBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.get());
+        stats.put("expirations", expirations.get());
+        stats.put("rejections", rejections.get());
+        return stats;
+    }
+
+    private void removeEntry(String key) {
+        JobSearchCache removed = entries.remove(key);
+        if (removed != null) {
+            currentWeight -= weigh(key, removed);
+        }
+    }
+
+    private boolean isExpired(JobSearchCache entry, Instant now) {
+        return entry.getExpireAt() != null && !entry.getExpireAt().isAfter(now);
+    }
+
+    private long weigh(String key, JobSearchCache value) {
+        long payload = 0;
+        if (value.getResultGzip() != null) {
+            payload = value.getResultGzip().length;
+        } else if (value.getResultJson() != null) {
+            payload = value.getResultJson().length() * 2L;
+        }
+        return key.length() * 2L + payload + ENTRY_OVERHEAD_BYTES;
+    }
+}
@@ -1,339 +1,716 @@
 package com.easepath.backend.service;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.easepath.backend.dto.JobSearchResult;
+import com.easepath.backend.dto.JobSearchResult.CacheStatus;
+import com.easepath.backend.model.JobPostingDocument;
 import com.easepath.backend.model.JobSearchCache;
 import com.easepath.backend.repository.JobSearchRepository;
-import com.fasterxml.jackson.databind.JsonNode;
+import com.easepath.backend.repository.ReactiveJobSearchRepository;
+import com.easepath.backend.service.CreditBudgetService.Priority;
+import com.easepath.backend.util.GzipUtils;
+import com.easepath.backend.util.TtlUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class JobSearchService {
 
     private static final Logger log = LoggerFactory.getLogger(JobSearchService.class);
 
-    private final JobSearchRepository jobSearchRepository;
-    private final WebClient jsearchClient;
-    private final WebClient theirStackClient;
-    private final ObjectMapper objectMapper;
-
-    @Value("${theirstack.api-key:}")
-    private String theirStackApiKey;
-
-    @Value("${rapidapi.key:}")
-    private String rapidApiKey;
+    private static final String SEARCH_ERROR_JSON =
+            "{\"status\":\"ERROR\",\"message\":\"Unable to fetch jobs. Please try again later.\",\"data\":[]}";
 
-    @Value("${rapidapi.host:jsearch.p.rapidapi.com}")
-    private String rapidApiHost;
+    /**
+     * What a client needs to revalidate a cached search: the payload's ETag
+     * and until when it is served without a refresh.
+     */
+    public record CacheValidator(String etag, Instant freshUntil) {
+    }
 
-    public JobSearchService(JobSearchRepository jobSearchRepository, WebClient.Builder webClientBuilder) {
+    private final JobSearchRepository jobSearchRepository;
+    private final ReactiveJobSearchRepository reactiveJobSearchRepository;
+    private final MongoTemplate mongoTemplate;
+    private final JobPostingStore jobPostingStore;
+    private final JobSearchIndex jobSearchIndex;
+    private final JobSearchCoordinator coordinator;
+    private final JobSearchL1Cache l1Cache;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<JobSearchCache> upstreamFetches = new SingleFlight<>();
+    private final HeavyHitters<JobSearchKey> popularSearches;
+    private final ThreadPoolExecutor refreshExecutor;
+    private final Map<String, Instant> lastRefreshAttempt = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService refreshAttemptSweeper = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("job-search-refresh-sweeper").daemon(true).factory());
+    private final AtomicLong staleServed = new AtomicLong();
+    private final AtomicLong staleIfErrorServed = new AtomicLong();
+    private final AtomicLong backgroundRefreshes = new AtomicLong();
+    private final AtomicLong prefetches = new AtomicLong();
+    private final AtomicLong etagsRevised = new AtomicLong();
+
+    // Soft TTL: results older than this are refreshed in the background
+    @Value("${easepath.jobs.cache.ttl-hours:72}")
+    private long cacheTtlHours;
+
+    @Value("${easepath.jobs.cache.ttl-jitter-minutes:120}")
+    private long cacheTtlJitterMinutes;
+
+    // Hard TTL: results older than this are only served if every provider fails
+    @Value("${easepath.jobs.cache.hard-ttl-hours:168}")
+    private long cacheHardTtlHours;
+
+    // Minimum gap between background refresh attempts for the same key
+    @Value("${easepath.jobs.cache.refresh-backoff-minutes:5}")
+    private long refreshBackoffMinutes;
+
+    // How many pages of a multi-page search are looked up at once
+    @Value("${easepath.jobs.search.page-concurrency:4}")
+    private int pageConcurrency;
+
+    @Value("${easepath.jobs.search.prefetch-next-page:true}")
+    private boolean prefetchNextPage;
+
+    // Pages beyond this are never prefetched; few users page that far
+    @Value("${easepath.jobs.search.max-prefetch-page:5}")
+    private int maxPrefetchPage;
+
+    public JobSearchService(JobSearchRepository jobSearchRepository,
+            ReactiveJobSearchRepository reactiveJobSearchRepository, MongoTemplate mongoTemplate,
+            JobPostingStore jobPostingStore,
+            JobSearchIndex jobSearchIndex, JobSearchCoordinator coordinator, JobSearchL1Cache l1Cache,
+            @Value("${easepath.jobs.cache.refresh-threads:2}") int refreshThreads,
+            @Value("${easepath.jobs.warming.tracked-searches:256}") int trackedSearches) {
         this.jobSearchRepository = jobSearchRepository;
-        this.jsearchClient = webClientBuilder.clone().baseUrl("https://jsearch.p.rapidapi.com").build();
-        this.theirStackClient = webClientBuilder.clone().baseUrl("https://api.theirstack.com").build();
+        this.reactiveJobSearchRepository = reactiveJobSearchRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.jobPostingStore = jobPostingStore;
+        this.jobSearchIndex = jobSearchIndex;
+        this.coordinator = coordinator;
+        this.l1Cache = l1Cache;
         this.objectMapper = new ObjectMapper();
+        this.popularSearches = new HeavyHitters<>(trackedSearches);
+        // Small bounded pool; refreshes that don't fit are dropped and retried on a later request
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(64),
+                Thread.ofPlatform().name("job-search-refresh-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.refreshAttemptSweeper.scheduleWithFixedDelay(this::expireRefreshAttempts, 1, 1, TimeUnit.MINUTES);
     }
 
-    public String searchJobs(String query, String numPages, String datePosted, String remoteJobsOnly,
-            String employmentTypes, String jobRequirements) {
-        // Create a unique cache key based on parameters
-        String cacheKey = "jobs|" + query + "|" + numPages + "|" + datePosted + "|" + remoteJobsOnly + "|"
-                + employmentTypes + "|" + jobRequirements;
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        refreshAttemptSweeper.shutdownNow();
+    }
 
-        // 1. Check cache first
-        Optional<JobSearchCache> cached = jobSearchRepository.findByQuery(cacheKey);
-        if (cached.isPresent()) {
-            log.info("✅ Returning cached job search results for: {}", cacheKey);
-            return cached.get().getResultJson();
-        }
+    /**
+     * Forget refresh attempts whose backoff is over, so keys that are never
+     * asked for again don't pile up.
+     */
+    private void expireRefreshAttempts() {
+        Instant cutoff = Instant.now().minus(Duration.ofMinutes(refreshBackoffMinutes));
+        lastRefreshAttempt.values().removeIf(attempt -> attempt.isBefore(cutoff));
+    }
 
-        // 2. Try JSearch (RapidAPI) first - it's our primary API
-        if (rapidApiKey != null && !rapidApiKey.isEmpty()) {
-            try {
-                log.info("🔍 Trying JSearch API for: {}", query);
-                String result = searchWithJSearch(query, numPages, datePosted, remoteJobsOnly, employmentTypes,
-                        jobRequirements);
-                if (result != null && !result.isEmpty()) {
-                    // Cache the result
-                    jobSearchRepository.save(new JobSearchCache(cacheKey, result));
-                    return result;
-                }
-            } catch (WebClientResponseException.TooManyRequests e) {
-                log.warn("⚠️ JSearch rate limited, falling back to TheirStack");
-            } catch (Exception e) {
-                log.warn("⚠️ JSearch failed: {}, falling back to TheirStack", e.getMessage());
-            }
-        }
+    public Mono<JobSearchResult> searchJobs(String query, String page, String numPages, String datePosted,
+            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
+        return searchJobs(query, page, numPages, datePosted, remoteJobsOnly, employmentTypes, jobRequirements,
+                Priority.INTERACTIVE);
+    }
 
-        // 3. Fall back to TheirStack
-        if (theirStackApiKey != null && !theirStackApiKey.isEmpty()) {
-            try {
-                log.info("🔍 Trying TheirStack API for: {}", query);
-                String result = searchWithTheirStack(query, datePosted, remoteJobsOnly, employmentTypes);
-                if (result != null && !result.isEmpty()) {
-                    // Cache the result
-                    jobSearchRepository.save(new JobSearchCache(cacheKey, result));
-                    return result;
-                }
-            } catch (Exception e) {
-                log.error("❌ TheirStack also failed: {}", e.getMessage());
+    /**
+     * Search with an explicit credit priority. Background callers (cache
+     * warming) only get the part of the upstream budget not reserved for users.
+     * Each page is looked up and cached on its own, so a multi-page search
+     * fetches its missing pages concurrently and reuses any page already cached
+     * by another search.
+     * Nothing here blocks the subscribing thread: the cache lookup uses the
+     * reactive Mongo driver, provider calls are composed on WebClient, and the
+     * remaining blocking Mongo work runs on the bounded elastic scheduler.
+     */
+    public Mono<JobSearchResult> searchJobs(String query, String page, String numPages, String datePosted,
+            String remoteJobsOnly, String employmentTypes, String jobRequirements, Priority priority) {
+        JobSearchKey key = JobSearchKey.of(query, page, numPages, datePosted, remoteJobsOnly, employmentTypes,
+                jobRequirements);
+        List<JobSearchKey> pageKeys = key.pageKeys();
+
+        // Entries from before per-page caching were stored under the raw parameters
+        String legacyKey = key.page() == 1 && "1".equals(key.numPages())
+                ? "jobs|" + query + "|" + numPages + "|" + datePosted + "|" + remoteJobsOnly + "|" + employmentTypes
+                        + "|" + jobRequirements
+                : null;
+
+        Mono<JobSearchResult> result = pageKeys.size() == 1
+                ? searchPage(pageKeys.get(0), legacyKey, priority)
+                : Flux.fromIterable(pageKeys)
+                        .flatMapSequential(pageKey -> searchPage(pageKey, null, priority), pageConcurrency)
+                        .collectList()
+                        .map(this::mergePages);
+
+        return result.doOnNext(served -> {
+            if (prefetchNextPage && priority == Priority.INTERACTIVE && served.getCacheStatus() != CacheStatus.ERROR) {
+                schedulePrefetch(key.forPage(key.page() + pageKeys.size()));
             }
+        });
+    }
+
+    /**
+     * Look up or fetch a single page of results.
+     */
+    private Mono<JobSearchResult> searchPage(JobSearchKey key, String legacyKey, Priority priority) {
+        // Equivalent searches share one cache entry, indexed by a fixed-length hash
+        String cacheKey = key.hash();
+        if (priority == Priority.INTERACTIVE) {
+            // Only real user traffic decides what the cache warmer keeps warm
+            popularSearches.offer(cacheKey, key);
         }
 
-        // 4. Both APIs failed
-        log.error(" All job search APIs failed");
-        return "{\"status\":\"ERROR\",\"message\":\"Unable to fetch jobs. Please try again later.\",\"data\":[]}";
+        // 1. Check the in-process cache, then Mongo
+        JobSearchCache inMemory = l1Cache.get(cacheKey);
+        Mono<JobSearchCache> lookup = inMemory != null
+                ? Mono.just(inMemory)
+                : reactiveJobSearchRepository.findByQuery(cacheKey)
+                        .switchIfEmpty(legacyKey != null
+                                ? blocking(() -> migrateLegacyEntry(key, legacyKey).orElse(null))
+                                : Mono.empty())
+                        .flatMap(entry -> blocking(() -> hydrate(entry)))
+                        .doOnNext(entry -> l1Cache.put(cacheKey, entry));
+
+        return lookup
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(found -> {
+                    JobSearchCache cached = found.orElse(null);
+                    Instant now = Instant.now();
+                    if (cached != null && !isExpired(cached, now)) {
+                        if (needsRefresh(cached, now)) {
+                            log.info("Returning stale job search results for {} and refreshing in background",
+                                    key.canonical());
+                            staleServed.incrementAndGet();
+                            scheduleRefresh(cacheKey, () -> fetchFromProviders(key, Priority.BACKGROUND));
+                            return Mono.just(toResult(cached, CacheStatus.STALE));
+                        }
+                        log.debug("✅ Returning cached job search results for: {}", key.canonical());
+                        return Mono.just(toResult(cached, CacheStatus.HIT));
+                    }
+
+                    // 2. Nothing cached for this exact search - answer from postings we
+                    // already know if they cover it well enough. Background callers are
+                    // there to refresh data, so they always go upstream.
+                    Mono<JobSearchResult> local = priority == Priority.INTERACTIVE
+                            ? blocking(() -> searchLocally(key))
+                            : Mono.empty();
+
+                    // 3. Nothing usable known - fetch now. Only one upstream fetch runs per
+                    // key; concurrent misses share its result.
+                    Mono<JobSearchResult> fetched = upstreamFetches.executeAsync(cacheKey, () -> {
+                        JobSearchCache justCached = l1Cache.peek(cacheKey);
+                        return justCached != null && !needsRefresh(justCached, Instant.now())
+                                ? Mono.just(justCached)
+                                : fetchFromProvidersAsync(key, priority);
+                    }).map(entry -> toResult(entry, CacheStatus.MISS));
+
+                    // 4. Every provider failed, or storing the result did - an expired result beats an error
+                    Mono<JobSearchResult> fallback = Mono.fromSupplier(() -> {
+                        if (cached != null) {
+                            log.warn("Serving expired job search results for {} from {}", key.canonical(),
+                                    cached.getCreatedAt());
+                            staleIfErrorServed.incrementAndGet();
+                            return toResult(cached, CacheStatus.STALE_IF_ERROR);
+                        }
+                        return new JobSearchResult(SEARCH_ERROR_JSON, null, CacheStatus.ERROR, null);
+                    });
+
+                    return local.switchIfEmpty(fetched)
+                            .switchIfEmpty(fallback)
+                            .onErrorResume(e -> {
+                                log.warn("Job search failed for {}: {}", key.canonical(), e.getMessage());
+                                return fallback;
+                            });
+                })
+                // The cache lookup itself failed, so there is nothing stale to serve
+                .onErrorResume(e -> {
+                    log.warn("Job search cache lookup failed for {}: {}", key.canonical(), e.getMessage());
+                    return Mono.just(new JobSearchResult(SEARCH_ERROR_JSON, null, CacheStatus.ERROR, null));
+                });
     }
 
     /**
-     * Search using JSearch (RapidAPI) - Primary API
+     * Answer a search from postings we already have: narrow a cached
+     * unfiltered result by the search's filters, or search the local index.
+     * Null if neither covers it.
      */
-    private String searchWithJSearch(String query, String numPages, String datePosted,
-            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
+    private JobSearchResult searchLocally(JobSearchKey key) {
+        // A filter toggle narrows the cached unfiltered result instead of a new upstream call
+        JobSearchResult narrowed = key.isFiltered() ? narrowCachedSuperset(key) : null;
+        if (narrowed != null) {
+            return narrowed;
+        }
+        JobSearchIndex.LocalResult local = jobSearchIndex.search(key);
+        if (local != null) {
+            log.debug("Answering job search locally for: {}", key.canonical());
+            return new JobSearchResult(jobPostingStore.assembleResult(local.jobIds()), null, CacheStatus.LOCAL,
+                    local.oldestSeenAt());
+        }
+        return null;
+    }
 
-        String response = jsearchClient.get()
-                .uri(uriBuilder -> {
-                    uriBuilder.path("/search")
-                            .queryParam("query", query)
-                            .queryParam("page", "1")
-                            .queryParam("num_pages", numPages != null ? numPages : "1")
-                            .queryParam("date_posted", datePosted != null ? datePosted : "all");
+    /**
+     * Run blocking work (Mongo via the blocking driver, gzip) off the calling
+     * thread. A null result becomes an empty Mono.
+     */
+    static <T> Mono<T> blocking(Callable<T> work) {
+        return Mono.fromCallable(work).subscribeOn(Schedulers.boundedElastic());
+    }
 
-                    if (remoteJobsOnly != null && "true".equalsIgnoreCase(remoteJobsOnly)) {
-                        uriBuilder.queryParam("remote_jobs_only", "true");
-                    }
-                    if (employmentTypes != null && !employmentTypes.isEmpty()) {
-                        uriBuilder.queryParam("employment_types", employmentTypes);
-                    }
-                    if (jobRequirements != null && !jobRequirements.isEmpty()) {
-                        uriBuilder.queryParam("job_requirements", jobRequirements);
-                    }
+    /**
+     * Answer one page of a filtered search by filtering the cached pages of the
+     * same search without filters, in order, with the index's facet bitmaps.
+     * Page N of the filtered search is postings (N-1)*perPage to N*perPage of
+     * that filtered sequence, so it is only answered once the cached pages
+     * yield enough postings to fill it and every page before it. Null if they
+     * don't, or if a page can't be narrowed, so the providers are asked.
+     */
+    private JobSearchResult narrowCachedSuperset(JobSearchKey key) {
+        int perPage = jobSearchIndex.resultsPerPage();
+        int needed = key.page() * perPage;
+        JobSearchKey unfiltered = key.unfiltered();
+        Set<String> narrowed = new LinkedHashSet<>();
+        Instant oldest = null;
+        Instant now = Instant.now();
+
+        for (int page = 1; page <= JobSearchKey.MAX_PAGE && narrowed.size() < needed; page++) {
+            String supersetKey = unfiltered.forPage(page).hash();
+            JobSearchCache superset = l1Cache.peek(supersetKey);
+            if (superset == null) {
+                superset = jobSearchRepository.findByQuery(supersetKey).orElse(null);
+            }
+            // Past the last cached page the filtered sequence is unknown
+            if (superset == null || superset.getJobIds() == null || isExpired(superset, now)) {
+                return null;
+            }
+            List<String> pageIds = jobSearchIndex.narrow(superset.getJobIds(), key);
+            if (pageIds == null) {
+                return null;
+            }
+            narrowed.addAll(pageIds);
+            if (superset.getCreatedAt() != null && (oldest == null || superset.getCreatedAt().isBefore(oldest))) {
+                oldest = superset.getCreatedAt();
+            }
+            // A short unfiltered page is the provider's last one
+            if (superset.getJobIds().size() < perPage) {
+                break;
+            }
+        }
+        if (narrowed.size() < needed) {
+            return null;
+        }
 
-                    return uriBuilder.build();
-                })
-                .header("X-RapidAPI-Key", rapidApiKey)
-                .header("X-RapidAPI-Host", rapidApiHost)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+        List<String> jobIds = new ArrayList<>(narrowed).subList(needed - perPage, needed);
+        jobSearchIndex.recordNarrowedResult();
+        log.debug("Narrowed cached {} to {}", unfiltered.canonical(), key.canonical());
+        return new JobSearchResult(jobPostingStore.assembleResult(jobIds), null, CacheStatus.LOCAL, oldest);
+    }
 
-        log.info(" JSearch returned results");
-        return response;
+    /**
+     * The most requested single-page searches, most popular first. Each call
+     * also halves the counts so popularity follows recent traffic.
+     */
+    public List<JobSearchKey> takePopularSearches(int k) {
+        List<JobSearchKey> top = popularSearches.top(k).stream().map(HeavyHitters.Entry::value).toList();
+        popularSearches.decay();
+        return top;
     }
 
     /**
-     * Search using TheirStack API - Fallback API
+     * True if the search has no cached result or its result is due for a
+     * refresh within {@code lead}.
      */
-    private String searchWithTheirStack(String query, String datePosted, String remoteJobsOnly,
-            String employmentTypes) {
+    public boolean needsWarming(JobSearchKey key, Duration lead) {
+        String cacheKey = key.hash();
+        JobSearchCache cached = l1Cache.peek(cacheKey);
+        if (cached == null) {
+            cached = jobSearchRepository.findByQuery(cacheKey).orElse(null);
+        }
+        return cached == null || needsRefresh(cached, Instant.now().plus(lead));
+    }
 
-        Map<String, Object> requestBody = buildTheirStackRequest(query, datePosted, remoteJobsOnly, employmentTypes);
+    /**
+     * Fetch a single-page search from the providers at background priority
+     * and cache it, replacing any cached result. Returns false if no provider
+     * answered (or the background credit budget is spent).
+     */
+    public boolean warm(JobSearchKey key) {
+        return upstreamFetches.execute(key.hash(), () -> fetchFromProviders(key, Priority.BACKGROUND)) != null;
+    }
 
-        log.info("Sending request to TheirStack: {}", requestBody);
+    /**
+     * A single posting from any cached search, in JSearch format.
+     */
+    public Optional<String> findJob(String jobId) {
+        return jobPostingStore.findById(jobId).map(JobPostingDocument::getJobJson);
+    }
 
-        String response = theirStackClient.post()
-                .uri("/v1/jobs/search")
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + theirStackApiKey)
-                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+    private JobSearchResult toResult(JobSearchCache entry, CacheStatus status) {
+        return new JobSearchResult(entry.getResultJson(), entry.getResultGzip(), status, entry.getCreatedAt(),
+                entry.getEtag(), entry.getRefreshAt());
+    }
 
-        // Transform TheirStack response to match JSearch format
-        String transformedResponse = transformTheirStackResponse(response);
-        log.info(" TheirStack returned results");
-        return transformedResponse;
+    /**
+     * The ETag and freshness of the cached result for a search, read without
+     * loading its payload. Empty if any page is missing, has no ETag or is due
+     * for a refresh - those requests take the normal search path, which also
+     * schedules the refresh.
+     */
+    public Mono<CacheValidator> currentValidator(String query, String page, String numPages, String datePosted,
+            String remoteJobsOnly, String employmentTypes, String jobRequirements) {
+        JobSearchKey key = JobSearchKey.of(query, page, numPages, datePosted, remoteJobsOnly, employmentTypes,
+                jobRequirements);
+        return Flux.fromIterable(key.pageKeys())
+                .flatMapSequential(this::pageValidator)
+                .collectList()
+                .filter(validators -> validators.size() == key.pageKeys().size())
+                .map(validators -> validators.size() == 1 ? validators.get(0) : combine(validators))
+                .doOnNext(validator -> key.pageKeys()
+                        .forEach(pageKey -> popularSearches.offer(pageKey.hash(), pageKey)));
     }
 
-    private Map<String, Object> buildTheirStackRequest(String query, String datePosted, String remoteJobsOnly,
-            String employmentTypes) {
-        Map<String, Object> request = new HashMap<>();
+    private Mono<CacheValidator> pageValidator(JobSearchKey key) {
+        String cacheKey = key.hash();
+        JobSearchCache inMemory = l1Cache.peek(cacheKey);
+        Mono<JobSearchCache> entry = inMemory != null
+                ? Mono.just(inMemory)
+                : reactiveJobSearchRepository.findValidatorByQuery(cacheKey);
+        return entry
+                .filter(cached -> cached.getEtag() != null && !needsRefresh(cached, Instant.now()))
+                .map(cached -> new CacheValidator(cached.getEtag(), cached.getRefreshAt()));
+    }
 
-        // Pagination - limit to 10 to conserve credits
-        request.put("page", 0);
-        request.put("limit", 10);
-        request.put("blur_company_data", false);
+    private CacheValidator combine(List<CacheValidator> validators) {
+        String etag = contentHash(validators.stream().map(CacheValidator::etag).collect(Collectors.joining(",")));
+        Instant freshUntil = validators.stream()
+                .map(CacheValidator::freshUntil)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        return new CacheValidator(etag, freshUntil);
+    }
 
-        // Parse query for location
-        String jobTitle = query;
-        String location = null;
+    /**
+     * 128-bit SHA-256 prefix of a payload, as 32 hex characters.
+     */
+    private static String contentHash(String payload) {
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 
-        if (query != null && query.toLowerCase().contains(" in ")) {
-            int inIndex = query.toLowerCase().lastIndexOf(" in ");
-            jobTitle = query.substring(0, inIndex).trim();
-            location = query.substring(inIndex + 4).trim();
+    /**
+     * Combine consecutive pages into one JSearch-format result. The status is
+     * the least fresh of the pages that succeeded; pages that failed are left
+     * out unless all of them failed.
+     */
+    private JobSearchResult mergePages(List<JobSearchResult> pages) {
+        List<JobSearchResult> usable = pages.stream()
+                .filter(page -> page.getCacheStatus() != CacheStatus.ERROR)
+                .toList();
+        if (usable.isEmpty()) {
+            return pages.get(0);
         }
 
-        // Job title search
-        if (jobTitle != null && !jobTitle.isEmpty()) {
-            List<String> titlePatterns = new ArrayList<>();
-            titlePatterns.add(jobTitle);
-            request.put("job_title_pattern_or", titlePatterns);
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("status", "OK");
+            generator.writeArrayFieldStart("data");
+            for (JobSearchResult page : usable) {
+                copyJobs(page.getResultJson(), generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to merge job search pages", e);
         }
 
-        // Date posted filter
-        if (datePosted != null && !datePosted.isEmpty() && !datePosted.equals("all")) {
-            int maxAgeDays = switch (datePosted) {
-                case "today" -> 1;
-                case "3days" -> 3;
-                case "week" -> 7;
-                case "month" -> 30;
-                default -> 30;
-            };
-            request.put("posted_at_max_age_days", maxAgeDays);
-        } else {
-            request.put("posted_at_max_age_days", 30);
+        CacheStatus status = usable.stream()
+                .map(JobSearchResult::getCacheStatus)
+                .max(Comparator.naturalOrder())
+                .orElse(CacheStatus.MISS);
+        Instant fetchedAt = usable.stream()
+                .map(JobSearchResult::getFetchedAt)
+                .filter(Objects::nonNull)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        // Validatable only if every page is, with the same combined ETag currentValidator() computes
+        CacheValidator validator = null;
+        if (usable.size() == pages.size() && usable.stream().allMatch(page -> page.getEtag() != null)) {
+            validator = combine(usable.stream()
+                    .map(page -> new CacheValidator(page.getEtag(), page.getFreshUntil()))
+                    .toList());
         }
+        return new JobSearchResult(out.toString(), null, status, fetchedAt,
+                validator != null ? validator.etag() : null, validator != null ? validator.freshUntil() : null);
+    }
 
-        // Location filter
-        List<String> locationPatterns = new ArrayList<>();
-        if ("true".equalsIgnoreCase(remoteJobsOnly)) {
-            locationPatterns.add("remote");
+    /**
+     * Stream the jobs of one page's "data" array into the merged result.
+     */
+    private void copyJobs(String pageJson, JsonGenerator generator) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(pageJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        generator.copyCurrentStructure(parser);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
         }
-        if (location != null && !location.isEmpty()) {
-            locationPatterns.add(location);
+    }
+
+    /**
+     * Fetch the page after the one just served in the background, so paging
+     * forward is a cache hit. Skipped if the page is already cached, and
+     * bounded by the refresh pool and its per-key backoff.
+     */
+    private void schedulePrefetch(JobSearchKey next) {
+        if (next.page() > maxPrefetchPage) {
+            return;
         }
-        if (!locationPatterns.isEmpty()) {
-            request.put("job_location_pattern_or", locationPatterns);
+        String cacheKey = next.hash();
+        if (l1Cache.peek(cacheKey) != null) {
+            return;
         }
-
-        // Country filter - default to US
-        List<String> countryCodes = new ArrayList<>();
-        countryCodes.add("US");
-        request.put("job_country_code_or", countryCodes);
-
-        // Order by date posted
-        List<Map<String, Object>> orderBy = new ArrayList<>();
-        Map<String, Object> order = new HashMap<>();
-        order.put("field", "date_posted");
-        order.put("desc", true);
-        orderBy.add(order);
-        request.put("order_by", orderBy);
-
-        return request;
+        scheduleRefresh(cacheKey, () -> {
+            JobSearchCache existing = jobSearchRepository.findByQuery(cacheKey).orElse(null);
+            if (existing != null && !needsRefresh(existing, Instant.now())) {
+                return existing;
+            }
+            prefetches.incrementAndGet();
+            return fetchFromProviders(next, Priority.BACKGROUND);
+        });
     }
 
-    private String transformTheirStackResponse(String theirStackResponse) {
-        try {
-            JsonNode root = objectMapper.readTree(theirStackResponse);
-            JsonNode dataArray = root.path("data");
-
-            // Create response in JSearch-compatible format
-            ObjectNode result = objectMapper.createObjectNode();
-            result.put("status", "OK");
-
-            ArrayNode jobsArray = objectMapper.createArrayNode();
-
-            if (dataArray.isArray()) {
-                for (JsonNode job : dataArray) {
-                    ObjectNode transformedJob = objectMapper.createObjectNode();
+    /**
+     * Rebuild the payload of an entry that only stores job ids from the jobs
+     * collection. The payload stays on the in-memory entry and is not saved;
+     * its ETag is re-derived from it and stored if the postings have changed.
+     */
+    private JobSearchCache hydrate(JobSearchCache entry) {
+        if (entry.getResultGzip() == null && entry.getResultJson() == null && entry.getJobIds() != null) {
+            String payload = jobPostingStore.assembleResult(entry.getJobIds());
+            entry.setResultGzip(GzipUtils.compress(payload));
+            // The postings are shared with other searches: re-stored, swapped for their canonical
+            // posting or expired since this entry was written. The ETag must describe this payload.
+            String etag = contentHash(payload);
+            if (!etag.equals(entry.getEtag())) {
+                if (entry.getEtag() != null) {
+                    etagsRevised.incrementAndGet();
+                }
+                entry.setEtag(etag);
+                try {
+                    // So validators read from Mongo name the payload now being served
+                    jobSearchRepository.updateEtag(entry.getId(), etag);
+                } catch (Exception e) {
+                    log.warn("Could not update ETag of cached search {}: {}", entry.getQuery(), e.getMessage());
+                }
+            }
+        }
+        return entry;
+    }
 
-                    // Map TheirStack fields to JSearch format
-                    transformedJob.put("job_id", job.path("id").asText());
-                    transformedJob.put("job_title", job.path("job_title").asText());
+    /**
+     * Read through to an entry stored under the old raw-concatenation key and
+     * re-key it to the canonical hash so the next lookup finds it directly.
+     */
+    private Optional<JobSearchCache> migrateLegacyEntry(JobSearchKey key, String legacyKey) {
+        return jobSearchRepository.findByQuery(legacyKey).map(legacy -> {
+            legacy.setQuery(key.hash());
+            legacy.setCanonicalQuery(key.canonical());
+            if (legacy.getResultGzip() == null && legacy.getResultJson() != null) {
+                legacy.setResultGzip(GzipUtils.compress(legacy.getResultJson()));
+                legacy.setResultJson(null);
+            }
+            try {
+                JobSearchCache migrated = jobSearchRepository.save(legacy);
+                log.info("Migrated legacy job search cache entry to {}", key.canonical());
+                return migrated;
+            } catch (DuplicateKeyException e) {
+                // Another request cached this search under its hash in the meantime
+                return jobSearchRepository.findByQuery(key.hash()).orElse(null);
+            }
+        });
+    }
 
-                    // Company info
-                    String company = job.path("company").asText();
-                    if (company.isEmpty() && job.has("company_object")) {
-                        company = job.path("company_object").path("name").asText();
-                    }
-                    transformedJob.put("employer_name", company);
+    /**
+     * Counters for the admin panel: L1 cache, request coalescing, stale serving
+     * and provider hedging.
+     */
+    public Map<String, Object> getSearchStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("l1", l1Cache.getStats());
+        stats.put("upstreamFetches", upstreamFetches.getExecutionCount());
+        stats.put("coalescedRequests", upstreamFetches.getCoalescedCount());
+        stats.put("inFlight", upstreamFetches.getInFlightCount());
+        stats.put("staleServed", staleServed.get());
+        // Cached results whose postings changed after they were written, so their ETag did too
+        stats.put("etagsRevised", etagsRevised.get());
+        stats.put("staleIfErrorServed", staleIfErrorServed.get());
+        stats.put("backgroundRefreshes", backgroundRefreshes.get());
+        stats.put("pagePrefetches", prefetches.get());
+        stats.put("trackedSearches", popularSearches.size());
+        stats.put("refreshQueueDepth", refreshExecutor.getQueue().size());
+
+        stats.put("providers", coordinator.getStats());
+        stats.put("jobs", jobPostingStore.getStats());
+        stats.put("localIndex", jobSearchIndex.getStats());
+        return stats;
+    }
 
-                    // Company logo
-                    if (job.has("company_object") && job.path("company_object").has("logo")) {
-                        transformedJob.put("employer_logo", job.path("company_object").path("logo").asText());
-                    } else {
-                        transformedJob.putNull("employer_logo");
-                    }
+    /**
+     * Refresh a stale entry off the request thread, at most once per backoff
+     * window per key so an upstream outage doesn't turn into a retry storm.
+     */
+    private void scheduleRefresh(String cacheKey, Supplier<JobSearchCache> loader) {
+        Instant now = Instant.now();
+        Duration backoff = Duration.ofMinutes(refreshBackoffMinutes);
+        // Claimed atomically: of concurrent stale hits only the one whose timestamp went in refreshes
+        Instant claimed = lastRefreshAttempt.compute(cacheKey,
+                (key, last) -> last != null && last.plus(backoff).isAfter(now) ? last : now);
+        if (claimed != now) {
+            return;
+        }
 
-                    // Location
-                    String jobLocation = job.path("job_location").asText("");
-                    String[] locationParts = jobLocation.split(",");
-                    transformedJob.put("job_city", locationParts.length > 0 ? locationParts[0].trim() : "");
-                    transformedJob.put("job_state", locationParts.length > 1 ? locationParts[1].trim() : "");
-                    transformedJob.put("job_country", job.path("job_country_code").asText("US"));
-
-                    // Employment type
-                    String commitment = job.path("commitment").asText("full_time");
-                    String employmentType = switch (commitment.toLowerCase()) {
-                        case "full_time" -> "FULLTIME";
-                        case "part_time" -> "PARTTIME";
-                        case "internship", "intern" -> "INTERN";
-                        case "contract", "contractor" -> "CONTRACTOR";
-                        default -> "FULLTIME";
-                    };
-                    transformedJob.put("job_employment_type", employmentType);
-
-                    // Date posted
-                    String datePosted = job.path("date_posted").asText();
-                    if (!datePosted.isEmpty()) {
-                        transformedJob.put("job_posted_at_datetime_utc", datePosted + "T00:00:00.000Z");
-                    } else {
-                        transformedJob.put("job_posted_at_datetime_utc", "");
-                    }
+        refreshExecutor.execute(() -> {
+            try {
+                backgroundRefreshes.incrementAndGet();
+                if (upstreamFetches.execute(cacheKey, loader) == null) {
+                    log.warn("Background refresh failed for {}, keeping stale result", cacheKey);
+                }
+            } catch (Exception e) {
+                log.warn("Background refresh failed for {}: {}", cacheKey, e.getMessage());
+            }
+        });
+    }
 
-                    // Description
-                    transformedJob.put("job_description", job.path("description").asText(""));
+    /**
+     * Fan the search out to every provider and cache the merged result (see
+     * {@link JobSearchCoordinator}). Empty (null when blocking) if no provider
+     * answered in time, so callers fall back to stale cached results.
+     */
+    private JobSearchCache fetchFromProviders(JobSearchKey key, Priority priority) {
+        return fetchFromProvidersAsync(key, priority).block();
+    }
 
-                    // Apply link
-                    String url = job.path("url").asText();
-                    if (url.isEmpty()) {
-                        url = job.path("final_url").asText();
-                    }
-                    transformedJob.put("job_apply_link", url);
-
-                    // Salary
-                    transformedJob.putNull("job_min_salary");
-                    transformedJob.putNull("job_max_salary");
-                    transformedJob.putNull("job_salary_currency");
-                    transformedJob.putNull("job_salary_period");
-
-                    // Remote
-                    boolean isRemote = jobLocation.toLowerCase().contains("remote");
-                    transformedJob.put("job_is_remote", isRemote);
-
-                    // Skills
-                    if (job.has("technology_slugs") && job.path("technology_slugs").isArray()) {
-                        ArrayNode skills = objectMapper.createArrayNode();
-                        for (JsonNode tech : job.path("technology_slugs")) {
-                            skills.add(tech.asText());
-                        }
-                        transformedJob.set("job_required_skills", skills);
-                    } else {
-                        transformedJob.putNull("job_required_skills");
-                    }
+    private Mono<JobSearchCache> fetchFromProvidersAsync(JobSearchKey key, Priority priority) {
+        return coordinator.search(key, priority)
+                .flatMap(merged -> blocking(() -> cacheResult(key, merged.postings())));
+    }
 
-                    // Experience
-                    ObjectNode experience = objectMapper.createObjectNode();
-                    experience.put("no_experience_required", false);
-                    experience.putNull("required_experience_in_months");
-                    transformedJob.set("job_required_experience", experience);
+    /**
+     * Store a fresh merged result in Mongo and the in-process cache. The
+     * postings are already in the jobs collection, so the cache document only
+     * keeps their ids; the in-process copy keeps the gzipped payload so hits
+     * don't reassemble it.
+     */
+    private JobSearchCache cacheResult(JobSearchKey key, List<JobPostingDocument> postings) {
+        String cacheKey = key.hash();
+
+        // Serve what a read from Mongo would reassemble right now; hydrate()
+        // re-derives the ETag if the shared postings change afterwards
+        String payload = jobPostingStore.assemblePostings(postings);
+        byte[] resultGzip = GzipUtils.compress(payload);
+
+        JobSearchCache entry = new JobSearchCache(cacheKey, null, jitteredTtl(), Duration.ofHours(cacheHardTtlHours));
+        entry.setJobIds(postings.stream().map(JobPostingDocument::getId).toList());
+        jobSearchIndex.addAll(postings);
+        entry.setCanonicalQuery(key.canonical());
+        entry.setEtag(contentHash(payload));
+        // Replace the previous document for this key, or insert it, in one operation on the
+        // unique query index, so concurrent writers of the same key never add a second one
+        JobSearchCache saved = mongoTemplate.findAndReplace(Query.query(Criteria.where("query").is(cacheKey)),
+                entry, FindAndReplaceOptions.options().upsert().returnNew());
+        saved.setResultGzip(resultGzip);
+        l1Cache.put(cacheKey, saved);
+        return saved;
+    }
 
-                    jobsArray.add(transformedJob);
-                }
-            }
+    /**
+     * Cache lifetime shortened by a random amount so entries written together
+     * (e.g. by the cache warmer) don't all expire in the same second.
+     */
+    private Duration jitteredTtl() {
+        long jitterSeconds = cacheTtlJitterMinutes > 0
+                ? ThreadLocalRandom.current().nextLong(cacheTtlJitterMinutes * 60)
+                : 0;
+        return Duration.ofHours(cacheTtlHours).minusSeconds(jitterSeconds);
+    }
 
-            result.set("data", jobsArray);
-            return objectMapper.writeValueAsString(result);
+    private boolean needsRefresh(JobSearchCache entry, Instant now) {
+        Instant refreshAt = entry.getRefreshAt() != null ? entry.getRefreshAt() : entry.getExpireAt();
+        return refreshAt != null && !refreshAt.isAfter(now);
+    }
 
-        } catch (Exception e) {
-            log.error("Error transforming TheirStack response", e);
-            return "{\"status\":\"OK\",\"data\":[]}";
+    private boolean isExpired(JobSearchCache entry, Instant now) {
+        // Documents written before soft/hard TTLs only have expireAt, which was the soft TTL
+        if (entry.getRefreshAt() == null) {
+            return false;
         }
+        return entry.getExpireAt() != null && TtlUtils.isExpired(entry.getExpireAt(), now);
     }
 }
@@ -6,6 +6,8 @@ import java.util.Map;
 import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
 import com.easepath.backend.model.UserProfileDocument;
 
+import reactor.core.publisher.Flux;
+
 /**
  * Service interface for OpenAI GPT-3.5-turbo integration.
  * Used for intelligent form field analysis and answer generation.
@@ -13,24 +15,49 @@ import com.easepath.backend.model.UserProfileDocument;
 public interface OpenAIService {
 
     /**
-     * Analyze form fields and intelligently map them to user profile data.
-     * Uses GPT-3.5-turbo to understand field context and find best matches.
+     * Map form fields (by id, or name if there is no id) to the names of the
+     * profile fields that fill them. Only field descriptors are sent to
+     * GPT-3.5-turbo, so each field's mapping is cached and reused for every
+     * user; fields no profile field fits are left out.
      */
-    Map<String, String> analyzeAndMapFields(
+    Map<String, String> mapFieldsToProfileFields(
             List<FormFieldInfo> fields,
-            UserProfileDocument profile,
             String platformName);
 
     /**
      * Generate an answer for a complex question (like "Why do you want to work
-     * here?")
-     * based on user's profile and the job context.
+     * here?") based on user's profile and the job context.
+     * {@code fresh} bypasses the completion cache so the user gets a new
+     * answer rather than the one generated last time. The answer is meant to
+     * be at most {@code maxLength} characters (0 for no limit): the model is
+     * asked for that length and max_tokens is sized to it, so it needs little
+     * or no trimming.
+     * Throws {@link java.util.concurrent.RejectedExecutionException} when
+     * OpenAI calls are saturated and the request can't be queued; other
+     * failures return null.
      */
     String generateAnswer(
             String question,
             UserProfileDocument profile,
             String jobTitle,
-            String company);
+            String company,
+            boolean fresh,
+            int maxLength);
+
+    /**
+     * Stream an answer as it is generated, as pieces of text to append. Once
+     * it reaches {@code maxLength} characters (0 for no limit) it is cut at a
+     * word boundary and the rest of the completion is cancelled. Fails with a
+     * {@link java.util.concurrent.RejectedExecutionException} when OpenAI
+     * calls are saturated, otherwise with the error that ended the stream.
+     */
+    Flux<String> streamAnswer(
+            String question,
+            UserProfileDocument profile,
+            String jobTitle,
+            String company,
+            boolean fresh,
+            int maxLength);
 
     /**
      * Learn from a user's answer to improve future responses.
@@ -49,6 +76,7 @@ public interface OpenAIService {
     /**
      * Score a resume using AI analysis.
      * Returns a map with scores for: overall, profile, keywords, ats, and message.
+     * If scoring failed the scores are placeholders and "fallback" is true.
      */
     java.util.Map<String, Object> scoreResume(String resumeText, String fileName);
 }
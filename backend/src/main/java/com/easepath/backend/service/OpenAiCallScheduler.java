@@ -0,0 +1,431 @@
+package com.easepath.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.easepath.backend.service.CreditBudgetService.Priority;
+
+/**
+ * Bounds how many OpenAI completions are in flight at once and decides who
+ * goes next when that limit is reached. Interactive calls (autofill, essay
+ * answers) always go before queued background calls (resume scoring), so a
+ * burst of scoring can't starve the extension.
+ * Calls run on the caller's own thread once admitted; only the admission
+ * queues. Each priority class has its own bounded queue and maximum wait, and
+ * a call that can't be queued or waits too long is rejected straight away
+ * with a {@link RejectedExecutionException} instead of piling up behind the
+ * rate limit.
+ * The limit itself adapts to the account's real rate limit, additive-increase
+ * multiplicative-decrease: every answered call raises it by about one slot
+ * per round of calls, every throttled call halves it (at most once per
+ * cooldown, since one burst produces several 429s). When OpenAI says to back
+ * off - Retry-After, or an exhausted x-ratelimit budget - nothing new starts
+ * until then.
+ * Streamed completions hold their slot through a {@link Permit} for as long
+ * as the stream runs, and their time to first token is recorded here too.
+ */
+@Component
+public class OpenAiCallScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenAiCallScheduler.class);
+
+    private static final class Waiter {
+        final Condition admitted;
+        boolean granted;
+
+        Waiter(Condition admitted) {
+            this.admitted = admitted;
+        }
+    }
+
+    private static final class ClassStats {
+        final AtomicLong submitted = new AtomicLong();
+        final AtomicLong admitted = new AtomicLong();
+        final AtomicLong rejectedQueueFull = new AtomicLong();
+        final AtomicLong rejectedWaitTimeout = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong maxQueueDepth = new AtomicLong();
+        final AtomicLong waitMsTotal = new AtomicLong();
+        final AtomicLong maxWaitMs = new AtomicLong();
+        final AtomicLong executionMsTotal = new AtomicLong();
+        final AtomicLong maxExecutionMs = new AtomicLong();
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Integer> maxQueue = new EnumMap<>(Priority.class);
+    private final Map<Priority, Long> maxWaitMs = new EnumMap<>(Priority.class);
+    private final Map<Priority, ClassStats> stats = new EnumMap<>(Priority.class);
+
+    private final int minConcurrent;
+    private final int maxConcurrent;
+    private final long decreaseCooldownNanos;
+
+    private final AtomicLong throttled = new AtomicLong();
+    private final AtomicLong decreases = new AtomicLong();
+    private final AtomicLong pauses = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong retriesExhausted = new AtomicLong();
+    private final AtomicLong streams = new AtomicLong();
+    private final AtomicLong streamsFromCache = new AtomicLong();
+    private final AtomicLong streamsTruncated = new AtomicLong();
+    private final AtomicLong streamsWithoutText = new AtomicLong();
+    private final AtomicLong firstTokenMsTotal = new AtomicLong();
+    private final AtomicLong maxFirstTokenMs = new AtomicLong();
+    private final AtomicLong streamMsTotal = new AtomicLong();
+
+    // Guarded by lock
+    private int inFlight;
+    private double limit;
+    private long pausedUntilNanos;
+    private long lastDecreaseNanos;
+
+    public OpenAiCallScheduler(
+            @Value("${easepath.openai.scheduler.min-concurrent:1}") int minConcurrent,
+            @Value("${easepath.openai.scheduler.max-concurrent:8}") int maxConcurrent,
+            @Value("${easepath.openai.scheduler.decrease-cooldown-ms:2000}") long decreaseCooldownMs,
+            @Value("${easepath.openai.scheduler.interactive.max-queue:50}") int interactiveMaxQueue,
+            @Value("${easepath.openai.scheduler.interactive.max-wait-ms:5000}") long interactiveMaxWaitMs,
+            @Value("${easepath.openai.scheduler.background.max-queue:20}") int backgroundMaxQueue,
+            @Value("${easepath.openai.scheduler.background.max-wait-ms:30000}") long backgroundMaxWaitMs) {
+        this.minConcurrent = Math.max(1, minConcurrent);
+        this.maxConcurrent = Math.max(this.minConcurrent, maxConcurrent);
+        this.decreaseCooldownNanos = TimeUnit.MILLISECONDS.toNanos(decreaseCooldownMs);
+        this.limit = this.maxConcurrent;
+        this.lastDecreaseNanos = System.nanoTime() - decreaseCooldownNanos;
+        this.pausedUntilNanos = System.nanoTime();
+        maxQueue.put(Priority.INTERACTIVE, interactiveMaxQueue);
+        maxQueue.put(Priority.BACKGROUND, backgroundMaxQueue);
+        maxWaitMs.put(Priority.INTERACTIVE, interactiveMaxWaitMs);
+        maxWaitMs.put(Priority.BACKGROUND, backgroundMaxWaitMs);
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            stats.put(priority, new ClassStats());
+        }
+    }
+
+    /**
+     * A slot held by a call that outlives the thread that was admitted, such
+     * as a streamed completion. Closing it again does nothing.
+     */
+    public final class Permit implements AutoCloseable {
+        private final ClassStats s;
+        private final long startedAt;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Permit(ClassStats s, long startedAt) {
+            this.s = s;
+            this.startedAt = startedAt;
+        }
+
+        public void failed() {
+            s.failed.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                record(s.executionMsTotal, s.maxExecutionMs, (System.nanoTime() - startedAt) / 1_000_000);
+                release();
+            }
+        }
+    }
+
+    /**
+     * Run a call once a slot is free, blocking the caller while it is queued.
+     * Rejected if its class's queue is full or it isn't admitted within the
+     * class's maximum wait.
+     */
+    public <T> T execute(Priority priority, Callable<T> call) throws Exception {
+        Permit permit = open(priority);
+        try {
+            return call.call();
+        } catch (Exception e) {
+            permit.failed();
+            throw e;
+        } finally {
+            permit.close();
+        }
+    }
+
+    /**
+     * Take a slot like {@link #execute}, blocking while queued, and hold it
+     * until the returned permit is closed.
+     */
+    public Permit open(Priority priority) throws InterruptedException {
+        ClassStats s = stats.get(priority);
+        s.submitted.incrementAndGet();
+        long queuedAt = System.nanoTime();
+        acquire(priority, s);
+
+        long startedAt = System.nanoTime();
+        record(s.waitMsTotal, s.maxWaitMs, (startedAt - queuedAt) / 1_000_000);
+        return new Permit(s, startedAt);
+    }
+
+    /**
+     * An answered call: additive increase. {@code pauseMs} > 0 if the
+     * response says the rate limit budget is used up until then.
+     */
+    public void recordSuccess(long pauseMs) {
+        lock.lock();
+        try {
+            limit = Math.min(maxConcurrent, limit + 1.0 / limit);
+            pause(pauseMs);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * A call OpenAI throttled (429): multiplicative decrease, and no new calls
+     * for {@code pauseMs}.
+     */
+    public void recordThrottled(long pauseMs) {
+        throttled.incrementAndGet();
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos >= decreaseCooldownNanos) {
+                limit = Math.max(minConcurrent, limit / 2);
+                lastDecreaseNanos = now;
+                decreases.incrementAndGet();
+                log.warn("OpenAI throttled - concurrency limit lowered to {}", (int) limit);
+            }
+            pause(pauseMs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Count a retried call, and one that ran out of attempts or deadline.
+     */
+    public void recordRetry(boolean exhausted) {
+        (exhausted ? retriesExhausted : retries).incrementAndGet();
+    }
+
+    /**
+     * Count a streamed completion. {@code firstTokenMs} is the time from the
+     * request to the first text relayed, the latency the user sees, or -1 if
+     * the stream ended before any.
+     */
+    public void recordStream(long firstTokenMs, long totalMs, boolean fromCache, boolean truncated) {
+        streams.incrementAndGet();
+        if (firstTokenMs < 0) {
+            streamsWithoutText.incrementAndGet();
+        } else {
+            record(firstTokenMsTotal, maxFirstTokenMs, firstTokenMs);
+        }
+        streamMsTotal.addAndGet(totalMs);
+        if (fromCache) {
+            streamsFromCache.incrementAndGet();
+        }
+        if (truncated) {
+            streamsTruncated.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            result.put("limit", (int) limit);
+            result.put("minConcurrent", minConcurrent);
+            result.put("maxConcurrent", maxConcurrent);
+            result.put("inFlight", inFlight);
+            result.put("pausedForMs", Math.max(0, (pausedUntilNanos - System.nanoTime()) / 1_000_000));
+        } finally {
+            lock.unlock();
+        }
+        result.put("throttled", throttled.get());
+        result.put("limitDecreases", decreases.get());
+        result.put("pauses", pauses.get());
+        result.put("retries", retries.get());
+        result.put("retriesExhausted", retriesExhausted.get());
+        long streamed = streams.get();
+        long withText = streamed - streamsWithoutText.get();
+        Map<String, Object> streamStats = new LinkedHashMap<>();
+        streamStats.put("streams", streamed);
+        streamStats.put("fromCache", streamsFromCache.get());
+        // Cut off at the requested length, cancelling the rest of the completion
+        streamStats.put("truncated", streamsTruncated.get());
+        streamStats.put("withoutText", streamsWithoutText.get());
+        streamStats.put("avgFirstTokenMs", withText == 0 ? 0 : firstTokenMsTotal.get() / withText);
+        streamStats.put("longestFirstTokenMs", maxFirstTokenMs.get());
+        streamStats.put("avgStreamMs", streamed == 0 ? 0 : streamMsTotal.get() / streamed);
+        result.put("streams", streamStats);
+        for (Priority priority : Priority.values()) {
+            ClassStats s = stats.get(priority);
+            long admitted = s.admitted.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            lock.lock();
+            try {
+                entry.put("queueDepth", queues.get(priority).size());
+            } finally {
+                lock.unlock();
+            }
+            entry.put("maxQueueDepth", s.maxQueueDepth.get());
+            entry.put("maxQueue", maxQueue.get(priority));
+            entry.put("maxWaitMs", maxWaitMs.get(priority));
+            entry.put("submitted", s.submitted.get());
+            entry.put("admitted", admitted);
+            entry.put("rejectedQueueFull", s.rejectedQueueFull.get());
+            entry.put("rejectedWaitTimeout", s.rejectedWaitTimeout.get());
+            entry.put("failed", s.failed.get());
+            entry.put("avgWaitMs", admitted == 0 ? 0 : s.waitMsTotal.get() / admitted);
+            entry.put("longestWaitMs", s.maxWaitMs.get());
+            entry.put("avgExecutionMs", admitted == 0 ? 0 : s.executionMsTotal.get() / admitted);
+            entry.put("longestExecutionMs", s.maxExecutionMs.get());
+            result.put(priority.name().toLowerCase(Locale.ROOT), entry);
+        }
+        return result;
+    }
+
+    private void acquire(Priority priority, ClassStats s) throws InterruptedException {
+        ArrayDeque<Waiter> queue = queues.get(priority);
+        lock.lock();
+        try {
+            // Take a free slot only if nobody of this or a higher class is already waiting for one
+            if (canStart() && !waitingAtOrAbove(priority)) {
+                inFlight++;
+                s.admitted.incrementAndGet();
+                return;
+            }
+            if (queue.size() >= maxQueue.get(priority)) {
+                s.rejectedQueueFull.incrementAndGet();
+                log.warn("OpenAI {} queue full ({} waiting, {} in flight) - rejecting call",
+                        priority, queue.size(), inFlight);
+                throw new RejectedExecutionException("OpenAI " + priority.name().toLowerCase(Locale.ROOT)
+                        + " queue is full");
+            }
+
+            Waiter waiter = new Waiter(lock.newCondition());
+            queue.addLast(waiter);
+            s.maxQueueDepth.accumulateAndGet(queue.size(), Math::max);
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs.get(priority));
+            try {
+                while (!waiter.granted && remainingNanos > 0) {
+                    // Nobody signals the end of a pause, so wake up for it ourselves
+                    long waitNanos = Math.min(remainingNanos, Math.max(0, pausedUntilNanos - System.nanoTime()));
+                    if (waitNanos == 0) {
+                        waitNanos = remainingNanos;
+                    }
+                    remainingNanos -= waitNanos - waiter.admitted.awaitNanos(waitNanos);
+                    if (!waiter.granted) {
+                        dispatch();
+                    }
+                }
+            } catch (InterruptedException e) {
+                giveUp(queue, waiter);
+                throw e;
+            }
+            if (!waiter.granted) {
+                queue.remove(waiter);
+                s.rejectedWaitTimeout.incrementAndGet();
+                log.warn("OpenAI {} call waited {} ms without a slot - rejecting", priority,
+                        maxWaitMs.get(priority));
+                throw new RejectedExecutionException("OpenAI " + priority.name().toLowerCase(Locale.ROOT)
+                        + " call timed out in queue");
+            }
+            s.admitted.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Hand free slots to queued calls, highest class first. Caller holds the
+     * lock.
+     */
+    private void dispatch() {
+        for (Priority priority : Priority.values()) {
+            ArrayDeque<Waiter> queue = queues.get(priority);
+            while (canStart() && !queue.isEmpty()) {
+                Waiter next = queue.pollFirst();
+                next.granted = true;
+                inFlight++;
+                next.admitted.signal();
+            }
+        }
+    }
+
+    /**
+     * An interrupted waiter leaves the queue, handing back the slot if it was
+     * granted one in the meantime. Caller holds the lock.
+     */
+    private void giveUp(ArrayDeque<Waiter> queue, Waiter waiter) {
+        if (waiter.granted) {
+            inFlight--;
+            dispatch();
+        } else {
+            queue.remove(waiter);
+        }
+    }
+
+    /**
+     * Caller holds the lock.
+     */
+    private boolean canStart() {
+        return inFlight < (int) limit && System.nanoTime() - pausedUntilNanos >= 0;
+    }
+
+    /**
+     * Hold off new calls for the given time, never shortening a pause already
+     * in force. Caller holds the lock.
+     */
+    private void pause(long pauseMs) {
+        if (pauseMs <= 0) {
+            return;
+        }
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(pauseMs);
+        if (until - pausedUntilNanos > 0) {
+            pausedUntilNanos = until;
+            pauses.incrementAndGet();
+            log.info("OpenAI rate limit - pausing new calls for {} ms", pauseMs);
+        }
+    }
+
+    private boolean waitingAtOrAbove(Priority priority) {
+        for (Priority other : Priority.values()) {
+            if (!queues.get(other).isEmpty()) {
+                return true;
+            }
+            if (other == priority) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static void record(AtomicLong total, AtomicLong max, long valueMs) {
+        total.addAndGet(valueMs);
+        max.accumulateAndGet(valueMs, Math::max);
+    }
+}
@@ -0,0 +1,187 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker and health score for one upstream job provider.
+ * Keeps a rolling window of recent call outcomes; the breaker opens when the
+ * error rate in the window is too high or the provider says we're rate
+ * limited, and lets a single trial call through once the cooldown has passed.
+ */
+public class ProviderCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * Called on every state change so the registry can keep a history.
+     */
+    public interface TransitionListener {
+        void onTransition(String provider, State from, State to, String reason);
+    }
+
+    private record Outcome(Instant at, boolean success, long latencyMs) {
+    }
+
+    private final String name;
+    private final Duration window;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final Duration baseCooldown;
+    private final Duration maxCooldown;
+    private final TransitionListener listener;
+
+    private final Deque<Outcome> outcomes = new ArrayDeque<>();
+    private State state = State.CLOSED;
+    private Instant openedAt;
+    private Duration cooldown;
+    private boolean trialInFlight;
+    private double latencyEwmaMs = -1;
+
+    public ProviderCircuitBreaker(String name, Duration window, int minCalls, double failureRateThreshold,
+            Duration baseCooldown, Duration maxCooldown, TransitionListener listener) {
+        this.name = name;
+        this.window = window;
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.baseCooldown = baseCooldown;
+        this.maxCooldown = maxCooldown;
+        this.cooldown = baseCooldown;
+        this.listener = listener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Whether a call may be made now. In HALF_OPEN only one trial call is let
+     * through at a time.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && Instant.now().isAfter(openedAt.plus(cooldown))) {
+            transition(State.HALF_OPEN, "cooldown of " + cooldown.toSeconds() + "s elapsed");
+        }
+        if (state == State.OPEN) {
+            return false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    public synchronized void recordSuccess(long latencyMs) {
+        record(new Outcome(Instant.now(), true, latencyMs));
+        latencyEwmaMs = latencyEwmaMs < 0 ? latencyMs : latencyEwmaMs * 0.8 + latencyMs * 0.2;
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            cooldown = baseCooldown;
+            outcomes.clear();
+            transition(State.CLOSED, "trial call succeeded");
+        }
+    }
+
+    public synchronized void recordFailure(long latencyMs, boolean rateLimited) {
+        record(new Outcome(Instant.now(), false, latencyMs));
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            // Back off harder each time the trial call fails
+            cooldown = cooldown.multipliedBy(2).compareTo(maxCooldown) > 0 ? maxCooldown : cooldown.multipliedBy(2);
+            open(rateLimited ? "trial call rate limited" : "trial call failed");
+        } else if (state == State.CLOSED) {
+            if (rateLimited) {
+                open("rate limited (429)");
+            } else if (outcomes.size() >= minCalls && failureRate() >= failureRateThreshold) {
+                open(String.format("error rate %.0f%% over last %d calls", failureRate() * 100, outcomes.size()));
+            }
+        }
+    }
+
+    /**
+     * A call that was cancelled (e.g. cut off by the merge window) says
+     * nothing about the provider's health, but it must release the half-open
+     * trial slot.
+     */
+    public synchronized void recordCancelled() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    /**
+     * Routing score in [0, 1]: success rate discounted by average latency.
+     * Open breakers score 0.
+     */
+    public synchronized double healthScore() {
+        if (state == State.OPEN) {
+            return 0.0;
+        }
+        prune();
+        double successRate = 1.0 - failureRate();
+        double latency = latencyEwmaMs < 0 ? 0 : latencyEwmaMs;
+        return successRate / (1.0 + latency / 5000.0);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        prune();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("provider", name);
+        snapshot.put("state", state.name());
+        snapshot.put("healthScore", healthScore());
+        snapshot.put("callsInWindow", outcomes.size());
+        snapshot.put("errorRate", failureRate());
+        snapshot.put("avgLatencyMs", latencyEwmaMs < 0 ? null : Math.round(latencyEwmaMs));
+        snapshot.put("openedAt", openedAt);
+        snapshot.put("cooldownSeconds", cooldown.toSeconds());
+        return snapshot;
+    }
+
+    private void open(String reason) {
+        openedAt = Instant.now();
+        transition(State.OPEN, reason);
+    }
+
+    private void transition(State to, String reason) {
+        State from = state;
+        state = to;
+        if (listener != null && from != to) {
+            listener.onTransition(name, from, to, reason);
+        }
+    }
+
+    private void record(Outcome outcome) {
+        outcomes.addLast(outcome);
+        prune();
+    }
+
+    private void prune() {
+        Instant cutoff = Instant.now().minus(window);
+        Iterator<Outcome> it = outcomes.iterator();
+        while (it.hasNext() && it.next().at().isBefore(cutoff)) {
+            it.remove();
+        }
+    }
+
+    private double failureRate() {
+        if (outcomes.isEmpty()) {
+            return 0.0;
+        }
+        long failures = outcomes.stream().filter(o -> !o.success()).count();
+        return (double) failures / outcomes.size();
+    }
+}
@@ -0,0 +1,105 @@
+package com.easepath.backend.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds a circuit breaker per upstream job provider and keeps a short history
+ * of breaker transitions for the admin panel.
+ */
+@Component
+public class ProviderHealthRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ProviderHealthRegistry.class);
+
+    private static final int MAX_TRANSITIONS = 50;
+
+    private final Map<String, ProviderCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> transitions = new ArrayDeque<>();
+
+    private final Duration window;
+    private final int minCalls;
+    private final double failureRateThreshold;
+    private final Duration baseCooldown;
+    private final Duration maxCooldown;
+
+    public ProviderHealthRegistry(
+            @Value("${easepath.jobs.breaker.window-minutes:10}") long windowMinutes,
+            @Value("${easepath.jobs.breaker.min-calls:5}") int minCalls,
+            @Value("${easepath.jobs.breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+            @Value("${easepath.jobs.breaker.cooldown-seconds:60}") long cooldownSeconds,
+            @Value("${easepath.jobs.breaker.max-cooldown-seconds:900}") long maxCooldownSeconds) {
+        this.window = Duration.ofMinutes(windowMinutes);
+        this.minCalls = minCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.baseCooldown = Duration.ofSeconds(cooldownSeconds);
+        this.maxCooldown = Duration.ofSeconds(maxCooldownSeconds);
+    }
+
+    public ProviderCircuitBreaker get(String provider) {
+        return breakers.computeIfAbsent(provider, name -> new ProviderCircuitBreaker(name, window, minCalls,
+                failureRateThreshold, baseCooldown, maxCooldown, this::onTransition));
+    }
+
+    /**
+     * Providers whose breaker currently allows a call, healthiest first.
+     * Acquiring counts as the half-open trial call, so only pass providers that
+     * will actually be called.
+     */
+    public List<ProviderCircuitBreaker> rank(List<String> providers) {
+        List<ProviderCircuitBreaker> ranked = new ArrayList<>();
+        // Scores read live breaker state; take them once so they can't change mid-sort
+        Map<ProviderCircuitBreaker, Double> scores = new HashMap<>();
+        for (String provider : providers) {
+            ProviderCircuitBreaker breaker = get(provider);
+            ranked.add(breaker);
+            scores.put(breaker, breaker.healthScore());
+        }
+        // Stable sort keeps the configured order as the tie-breaker
+        ranked.sort(Comparator.comparingDouble((ProviderCircuitBreaker breaker) -> scores.get(breaker)).reversed());
+        ranked.removeIf(breaker -> !breaker.tryAcquire());
+        return ranked;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        List<Map<String, Object>> providers = new ArrayList<>();
+        breakers.values().forEach(breaker -> providers.add(breaker.snapshot()));
+        status.put("providers", providers);
+        synchronized (transitions) {
+            status.put("transitions", new ArrayList<>(transitions));
+        }
+        return status;
+    }
+
+    private void onTransition(String provider, ProviderCircuitBreaker.State from, ProviderCircuitBreaker.State to,
+            String reason) {
+        log.warn("Circuit breaker for {} {} -> {} ({})", provider, from, to, reason);
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("at", Instant.now());
+        entry.put("provider", provider);
+        entry.put("from", from.name());
+        entry.put("to", to.name());
+        entry.put("reason", reason);
+        synchronized (transitions) {
+            transitions.addFirst(entry);
+            while (transitions.size() > MAX_TRANSITIONS) {
+                transitions.removeLast();
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.easepath.backend.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Collapses concurrent calls for the same key into a single execution.
+ * The first caller for a key runs the loader; everyone else arriving while it
+ * is in flight waits for and shares its result. Blocking and reactive
+ * callers share the same in-flight executions.
+ */
+public class SingleFlight<V> {
+
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public V execute(String key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException re) {
+                    throw re;
+                }
+                throw e;
+            }
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Reactive variant of {@link #execute}: subscribing starts the loader
+     * unless one is already in flight for the key. The loader runs to
+     * completion even if the subscriber that started it cancels, since others
+     * may be waiting on it. An empty loader result completes empty.
+     */
+    public Mono<V> executeAsync(String key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> mine = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+            if (existing != null) {
+                coalesced.incrementAndGet();
+                return Mono.fromFuture(existing, true);
+            }
+
+            executions.incrementAndGet();
+            Mono<V> load;
+            try {
+                load = loader.get();
+            } catch (RuntimeException e) {
+                inFlight.remove(key, mine);
+                mine.completeExceptionally(e);
+                return Mono.error(e);
+            }
+            load.doFinally(signal -> inFlight.remove(key, mine))
+                    .subscribe(mine::complete, mine::completeExceptionally, () -> mine.complete(null));
+            return Mono.fromFuture(mine, true);
+        });
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getExecutionCount() {
+        return executions.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
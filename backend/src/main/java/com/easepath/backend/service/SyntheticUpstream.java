@@ -0,0 +1,329 @@
+package com.easepath.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
+import com.easepath.backend.util.ProfileFields;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Made-up but well-formed JSearch, TheirStack and OpenAI responses, for
+ * {@link UpstreamSimulator} replay misses when nothing has been recorded.
+ * Responses are derived from the request alone, so the same request always
+ * gets the same answer. Both job providers describe the same underlying jobs
+ * for a given search and page, so cross-provider deduplication has something
+ * to collapse.
+ */
+final class SyntheticUpstream {
+
+    private static final int PAGE_SIZE = 10;
+
+    private static final String[] EMPLOYERS = { "Northwind Labs", "Contoso", "Globex", "Initech", "Umbrella Health",
+            "Stark Industries", "Wayne Enterprises", "Acme Corp", "Hooli", "Vandelay Industries", "Soylent",
+            "Cyberdyne Systems" };
+
+    private static final String[][] LOCATIONS = { { "Austin", "TX" }, { "Denver", "CO" }, { "Seattle", "WA" },
+            { "New York", "NY" }, { "Chicago", "IL" }, { "Atlanta", "GA" }, { "Boston", "MA" },
+            { "San Francisco", "CA" }, { "Raleigh", "NC" }, { "Phoenix", "AZ" } };
+
+    private static final String[] SKILLS = { "java", "python", "sql", "aws", "react", "typescript", "kubernetes",
+            "docker", "spring", "go", "excel", "communication" };
+
+    private static final String[] LEVELS = { "", "Senior ", "Junior ", "Lead ", "Staff " };
+
+    private static final String[] COMMITMENTS = { "full_time", "full_time", "full_time", "part_time", "contract",
+            "internship" };
+
+    private static final Pattern LOCATION_SEPARATOR = Pattern.compile("\\s(?:in|near)\\s");
+
+    private static final Pattern MAPPING_FIELD = Pattern.compile(
+            "(?m)^(\\d+)\\. id='(.*?)', name='(.*?)', label='(.*?)', placeholder='(.*?)', type='(.*?)'$");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * One generated job, before it is written in either provider's format.
+     */
+    private record Job(String id, String title, String employer, String city, String state, String commitment,
+            boolean remote, LocalDate posted, List<String> skills) {
+    }
+
+    /**
+     * A JSearch /search response for the query parameters.
+     */
+    String jsearchSearch(Map<String, String> params) throws Exception {
+        String employmentTypes = params.getOrDefault("employment_types", "");
+        int maxAgeDays = switch (params.getOrDefault("date_posted", "all")) {
+            case "today" -> 1;
+            case "3days" -> 3;
+            case "week" -> 7;
+            default -> 30;
+        };
+        List<Job> jobs = jobs(params.getOrDefault("query", ""), parsePage(params.get("page"), 1),
+                "true".equals(params.get("remote_jobs_only")), maxAgeDays);
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("status", "OK");
+        root.put("request_id", "synthetic");
+        ArrayNode data = root.putArray("data");
+        for (Job job : jobs) {
+            ObjectNode out = data.addObject();
+            out.put("job_id", "js-" + job.id());
+            out.put("job_title", job.title());
+            out.put("employer_name", job.employer());
+            out.putNull("employer_logo");
+            out.put("job_city", job.city());
+            out.put("job_state", job.state());
+            out.put("job_country", "US");
+            out.put("job_employment_type", employmentTypes.isEmpty()
+                    ? employmentType(job.commitment())
+                    : employmentTypes.split(",")[0]);
+            out.put("job_is_remote", job.remote());
+            out.put("job_posted_at_datetime_utc", job.posted() + "T00:00:00.000Z");
+            out.put("job_description", description(job));
+            out.put("job_apply_link", "https://jobs.example.com/" + job.id());
+            ArrayNode skills = out.putArray("job_required_skills");
+            job.skills().forEach(skills::add);
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    /**
+     * A TheirStack /v1/jobs/search response for the request body.
+     */
+    String theirStackSearch(String body) throws Exception {
+        JsonNode request = body.isBlank() ? objectMapper.createObjectNode() : objectMapper.readTree(body);
+        String query = request.path("job_title_pattern_or").path(0).asText("");
+        boolean remoteOnly = false;
+        for (JsonNode pattern : request.path("job_location_pattern_or")) {
+            if ("remote".equalsIgnoreCase(pattern.asText())) {
+                remoteOnly = true;
+            } else if (!pattern.asText().isBlank()) {
+                query = query + " in " + pattern.asText();
+            }
+        }
+        List<Job> jobs = jobs(query, request.path("page").asInt(0) + 1, remoteOnly,
+                Math.max(1, request.path("posted_at_max_age_days").asInt(30)));
+
+        ObjectNode root = objectMapper.createObjectNode();
+        ObjectNode metadata = root.putObject("metadata");
+        metadata.put("total_results", 200);
+        ArrayNode data = root.putArray("data");
+        for (Job job : jobs) {
+            ObjectNode out = data.addObject();
+            out.put("id", "ts-" + job.id());
+            out.put("job_title", job.title());
+            out.put("company", job.employer());
+            ObjectNode company = out.putObject("company_object");
+            company.put("name", job.employer());
+            company.put("logo", "https://logos.example.com/" + slug(job.employer()) + ".png");
+            out.put("job_location", job.remote() ? "Remote" : job.city() + ", " + job.state());
+            out.put("job_country_code", "US");
+            out.put("commitment", job.commitment());
+            out.put("date_posted", job.posted().toString());
+            out.put("description", description(job));
+            out.put("url", "https://jobs.example.com/" + job.id());
+            ArrayNode skills = out.putArray("technology_slugs");
+            job.skills().forEach(skills::add);
+        }
+        return objectMapper.writeValueAsString(root);
+    }
+
+    /**
+     * A chat completion for the request body: a field mapping, resume scores
+     * or a short essay depending on what the prompt asks for.
+     */
+    String openAiCompletion(String body) throws Exception {
+        JsonNode request = objectMapper.readTree(body);
+        String prompt = request.path("messages").path(0).path("content").asText("");
+        String content = completionContent(prompt);
+
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("id", "chatcmpl-synthetic");
+        root.put("object", "chat.completion");
+        root.put("model", request.path("model").asText("gpt-3.5-turbo"));
+        ObjectNode choice = root.putArray("choices").addObject();
+        choice.put("index", 0);
+        ObjectNode message = choice.putObject("message");
+        message.put("role", "assistant");
+        message.put("content", content);
+        choice.put("finish_reason", "stop");
+        root.set("usage", usage(prompt, content));
+        return objectMapper.writeValueAsString(root);
+    }
+
+    /**
+     * The same completion as a text/event-stream body, a few words per
+     * chunk, ending with the usage chunk and [DONE].
+     */
+    String openAiCompletionStream(String body) throws Exception {
+        JsonNode request = objectMapper.readTree(body);
+        String prompt = request.path("messages").path(0).path("content").asText("");
+        String content = completionContent(prompt);
+
+        StringBuilder events = new StringBuilder();
+        String[] words = content.split("(?<= )");
+        for (int i = 0; i < words.length; i += 3) {
+            ObjectNode chunk = objectMapper.createObjectNode();
+            chunk.put("object", "chat.completion.chunk");
+            chunk.putArray("choices").addObject().putObject("delta")
+                    .put("content", String.join("", Arrays.copyOfRange(words, i, Math.min(i + 3, words.length))));
+            events.append("data: ").append(objectMapper.writeValueAsString(chunk)).append("\n\n");
+        }
+        ObjectNode last = objectMapper.createObjectNode();
+        last.put("object", "chat.completion.chunk");
+        last.putArray("choices");
+        last.set("usage", usage(prompt, content));
+        events.append("data: ").append(objectMapper.writeValueAsString(last)).append("\n\n");
+        events.append("data: [DONE]\n\n");
+        return events.toString();
+    }
+
+    private String completionContent(String prompt) throws Exception {
+        Random random = random(prompt);
+        if (prompt.contains("map each form field number")) {
+            ObjectNode mapping = objectMapper.createObjectNode();
+            Matcher field = MAPPING_FIELD.matcher(prompt);
+            while (field.find()) {
+                FormFieldInfo info = new FormFieldInfo();
+                info.setId(field.group(2));
+                info.setName(field.group(3));
+                info.setLabel(field.group(4));
+                info.setPlaceholder(field.group(5));
+                info.setType(field.group(6));
+                String profileField = ProfileFields.guess(info);
+                if (profileField != null) {
+                    mapping.put(field.group(1), profileField);
+                } else {
+                    mapping.putNull(field.group(1));
+                }
+            }
+            return objectMapper.writeValueAsString(mapping);
+        }
+        if (prompt.contains("\"overall\"")) {
+            int profile = 60 + random.nextInt(36);
+            int keywords = 50 + random.nextInt(41);
+            int ats = 65 + random.nextInt(31);
+            return "{\"overall\": " + (profile + keywords + ats) / 3 + ", \"profile\": " + profile
+                    + ", \"keywords\": " + keywords + ", \"ats\": " + ats
+                    + ", \"message\": \"Solid resume; add more measurable results.\"}";
+        }
+        return "I am excited about this role because it builds directly on the work I have done so far. "
+                + "In my last position I owned features end to end, worked closely with design and support, "
+                + "and shipped improvements that customers noticed. I would bring the same care for quality, "
+                + "clear communication and steady delivery to your team, and I am eager to keep learning "
+                + "from the people around me.";
+    }
+
+    private ObjectNode usage(String prompt, String content) {
+        ObjectNode usage = objectMapper.createObjectNode();
+        // Roughly four characters per token, like the budgeter's estimate
+        int promptTokens = Math.max(1, prompt.length() / 4);
+        int completionTokens = Math.max(1, content.length() / 4);
+        usage.put("prompt_tokens", promptTokens);
+        usage.put("completion_tokens", completionTokens);
+        usage.put("total_tokens", promptTokens + completionTokens);
+        return usage;
+    }
+
+    /**
+     * One page of jobs for a search. The query's words become the job title,
+     * and a location after "in"/"near" becomes the jobs' city.
+     */
+    private List<Job> jobs(String query, int page, boolean remoteOnly, int maxAgeDays) {
+        String what = query.trim().toLowerCase(Locale.ROOT);
+        String where = "";
+        Matcher separator = LOCATION_SEPARATOR.matcher(what);
+        int split = -1;
+        while (separator.find()) {
+            split = separator.start();
+            where = what.substring(separator.end()).trim();
+        }
+        if (split >= 0) {
+            what = what.substring(0, split);
+        }
+        String title = Arrays.stream(what.split("[^a-z+#]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
+                .collect(Collectors.joining(" "));
+        if (title.isEmpty()) {
+            title = "Software Engineer";
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        List<Job> jobs = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            String seed = what.trim() + "|" + where + "|" + page + "|" + i;
+            Random random = random(seed);
+            String[] location = LOCATIONS[random.nextInt(LOCATIONS.length)];
+            String[] place = where.split(",");
+            String city = where.isEmpty() ? location[0] : capitalize(place[0].trim());
+            String state = place.length > 1 ? place[1].trim().toUpperCase(Locale.ROOT) : location[1];
+            List<String> skills = new ArrayList<>();
+            for (int s = 0; s < 3; s++) {
+                String skill = SKILLS[random.nextInt(SKILLS.length)];
+                if (!skills.contains(skill)) {
+                    skills.add(skill);
+                }
+            }
+            jobs.add(new Job(Integer.toHexString(seed.hashCode()), LEVELS[random.nextInt(LEVELS.length)] + title,
+                    EMPLOYERS[random.nextInt(EMPLOYERS.length)], city, state,
+                    COMMITMENTS[random.nextInt(COMMITMENTS.length)], remoteOnly || random.nextInt(4) == 0,
+                    today.minusDays(random.nextInt(maxAgeDays)), skills));
+        }
+        return jobs;
+    }
+
+    private static String description(Job job) {
+        return job.employer() + " is hiring a " + job.title() + " to join a growing team in " + job.city()
+                + ". You will design, build and support production systems using " + String.join(", ", job.skills())
+                + ", and work with product and operations on what to build next. We value ownership, clear "
+                + "writing and steady delivery. Competitive salary, health benefits and a learning budget.";
+    }
+
+    private static String employmentType(String commitment) {
+        return switch (commitment) {
+            case "part_time" -> "PARTTIME";
+            case "contract" -> "CONTRACTOR";
+            case "internship" -> "INTERN";
+            default -> "FULLTIME";
+        };
+    }
+
+    private static int parsePage(String value, int defaultPage) {
+        try {
+            return value != null ? Math.max(1, Integer.parseInt(value)) : defaultPage;
+        } catch (NumberFormatException e) {
+            return defaultPage;
+        }
+    }
+
+    private static String capitalize(String words) {
+        return Arrays.stream(words.split(" "))
+                .filter(word -> !word.isEmpty())
+                .map(word -> Character.toUpperCase(word.charAt(0)) + word.substring(1))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String slug(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    }
+
+    private static Random random(String seed) {
+        return new Random(Arrays.hashCode(seed.getBytes(StandardCharsets.UTF_8)));
+    }
+}
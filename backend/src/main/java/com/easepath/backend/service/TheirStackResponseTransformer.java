@@ -0,0 +1,289 @@
+package com.easepath.backend.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Converts a TheirStack job search response into the JSearch response format
+ * the frontend expects.
+ * The response is streamed: the body is fed to a non-blocking parser chunk by
+ * chunk as it arrives, only the job currently being parsed is held (as a
+ * token buffer, then a tree), and each job is written straight to the output
+ * as soon as it is complete. Peak memory is proportional to one job and one
+ * network chunk rather than the whole page.
+ */
+@Component
+public class TheirStackResponseTransformer {
+
+    private static final Logger log = LoggerFactory.getLogger(TheirStackResponseTransformer.class);
+
+    private static final String EMPTY_RESPONSE = "{\"status\":\"OK\",\"data\":[]}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Transform a response body as it is received. Completes with the
+     * JSearch-format page, or an empty one if the body isn't valid JSON.
+     * Every buffer is released once it has been fed to the parser.
+     */
+    public Mono<String> transform(Flux<DataBuffer> body) {
+        return Mono.defer(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+            return Mono.using(() -> open(out),
+                    transform -> body
+                            .doOnNext(buffer -> {
+                                try {
+                                    transform.feed(buffer);
+                                } finally {
+                                    DataBufferUtils.release(buffer);
+                                }
+                            })
+                            .then(Mono.fromCallable(() -> transform.finish()
+                                    ? out.toString(StandardCharsets.UTF_8)
+                                    : EMPTY_RESPONSE)),
+                    Transform::close);
+        });
+    }
+
+    /**
+     * Start a transform that writes the JSearch-format page to {@code out}.
+     * Feed it the response body in order, then call {@link Transform#finish}.
+     * Closing the transform closes {@code out} too, which finishes a gzip sink.
+     */
+    public Transform open(OutputStream out) throws IOException {
+        return new Transform(out);
+    }
+
+    /**
+     * One response being transformed. Not thread-safe; chunks must be fed in
+     * order.
+     */
+    public final class Transform implements AutoCloseable {
+
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final JsonGenerator generator;
+
+        private int depth;
+        private boolean rootIsObject;
+        private boolean inData;
+        private String field;
+        private TokenBuffer job;
+        private boolean failed;
+
+        private Transform(OutputStream out) throws IOException {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.writeStartObject();
+            generator.writeStringField("status", "OK");
+            generator.writeArrayFieldStart("data");
+        }
+
+        public void feed(DataBuffer buffer) {
+            byte[] chunk = new byte[buffer.readableByteCount()];
+            buffer.read(chunk);
+            feed(chunk, 0, chunk.length);
+        }
+
+        /**
+         * Parse the next chunk of the body, writing out every job it
+         * completes. The chunk is fully consumed before this returns.
+         */
+        public void feed(byte[] chunk, int offset, int length) {
+            if (failed) {
+                return;
+            }
+            try {
+                feeder.feedInput(chunk, offset, offset + length);
+                drain();
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        /**
+         * End of the body: close the output page. False if the body wasn't
+         * valid JSON, in which case the output is incomplete and should be
+         * discarded.
+         */
+        public boolean finish() {
+            if (!failed) {
+                try {
+                    feeder.endOfInput();
+                    drain();
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.flush();
+                } catch (Exception e) {
+                    fail(e);
+                }
+            }
+            return !failed;
+        }
+
+        @Override
+        public void close() {
+            try {
+                parser.close();
+                generator.close();
+            } catch (IOException e) {
+                log.debug("Error closing TheirStack transform: {}", e.getMessage());
+            }
+        }
+
+        /**
+         * Handle every token available so far. Tokens inside a job of the
+         * top-level "data" array are collected; everything else is skipped.
+         */
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (job == null && token == JsonToken.START_OBJECT && inData && depth == 2) {
+                    job = new TokenBuffer(parser);
+                }
+                if (job != null) {
+                    job.copyCurrentEvent(parser);
+                }
+                switch (token) {
+                    case FIELD_NAME -> {
+                        if (depth == 1) {
+                            field = parser.currentName();
+                        }
+                    }
+                    case START_OBJECT, START_ARRAY -> {
+                        if (depth == 0) {
+                            rootIsObject = token == JsonToken.START_OBJECT;
+                        } else if (depth == 1 && rootIsObject && token == JsonToken.START_ARRAY
+                                && "data".equals(field)) {
+                            inData = true;
+                        }
+                        depth++;
+                    }
+                    case END_OBJECT, END_ARRAY -> {
+                        depth--;
+                        if (depth == 2 && job != null) {
+                            try (JsonParser jobParser = job.asParser(objectMapper)) {
+                                writeJob(generator, objectMapper.readTree(jobParser));
+                            }
+                            job = null;
+                        } else if (depth == 1) {
+                            inData = false;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        private void fail(Exception e) {
+            failed = true;
+            job = null;
+            log.error("Error transforming TheirStack response", e);
+        }
+    }
+
+    /**
+     * Map one TheirStack job to a JSearch job object.
+     */
+    private void writeJob(JsonGenerator g, JsonNode job) throws IOException {
+        g.writeStartObject();
+
+        g.writeStringField("job_id", job.path("id").asText());
+        g.writeStringField("job_title", job.path("job_title").asText());
+
+        // Company info
+        String company = job.path("company").asText();
+        if (company.isEmpty() && job.has("company_object")) {
+            company = job.path("company_object").path("name").asText();
+        }
+        g.writeStringField("employer_name", company);
+
+        // Company logo
+        if (job.has("company_object") && job.path("company_object").has("logo")) {
+            g.writeStringField("employer_logo", job.path("company_object").path("logo").asText());
+        } else {
+            g.writeNullField("employer_logo");
+        }
+
+        // Location
+        String jobLocation = job.path("job_location").asText("");
+        String[] locationParts = jobLocation.split(",");
+        g.writeStringField("job_city", locationParts.length > 0 ? locationParts[0].trim() : "");
+        g.writeStringField("job_state", locationParts.length > 1 ? locationParts[1].trim() : "");
+        g.writeStringField("job_country", job.path("job_country_code").asText("US"));
+
+        // Employment type
+        String commitment = job.path("commitment").asText("full_time");
+        String employmentType = switch (commitment.toLowerCase()) {
+            case "full_time" -> "FULLTIME";
+            case "part_time" -> "PARTTIME";
+            case "internship", "intern" -> "INTERN";
+            case "contract", "contractor" -> "CONTRACTOR";
+            default -> "FULLTIME";
+        };
+        g.writeStringField("job_employment_type", employmentType);
+
+        // Date posted
+        String datePosted = job.path("date_posted").asText();
+        g.writeStringField("job_posted_at_datetime_utc", datePosted.isEmpty() ? "" : datePosted + "T00:00:00.000Z");
+
+        // Description - written straight from the parsed node, no intermediate copy
+        g.writeStringField("job_description", job.path("description").asText(""));
+
+        // Apply link
+        String url = job.path("url").asText();
+        if (url.isEmpty()) {
+            url = job.path("final_url").asText();
+        }
+        g.writeStringField("job_apply_link", url);
+
+        // Salary
+        g.writeNullField("job_min_salary");
+        g.writeNullField("job_max_salary");
+        g.writeNullField("job_salary_currency");
+        g.writeNullField("job_salary_period");
+
+        // Remote
+        g.writeBooleanField("job_is_remote", jobLocation.toLowerCase().contains("remote"));
+
+        // Skills
+        if (job.has("technology_slugs") && job.path("technology_slugs").isArray()) {
+            g.writeArrayFieldStart("job_required_skills");
+            for (JsonNode tech : job.path("technology_slugs")) {
+                g.writeString(tech.asText());
+            }
+            g.writeEndArray();
+        } else {
+            g.writeNullField("job_required_skills");
+        }
+
+        // Experience
+        g.writeObjectFieldStart("job_required_experience");
+        g.writeBooleanField("no_experience_required", false);
+        g.writeNullField("required_experience_in_months");
+        g.writeEndObject();
+
+        g.writeEndObject();
+    }
+}
@@ -0,0 +1,287 @@
+package com.easepath.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.knuddels.jtokkit.api.ModelType;
+
+/**
+ * Counts prompt tokens locally with the configured model's tokenizer, so
+ * prompts can be sized to a token budget before they are sent instead of
+ * being cut at a character count, and max_tokens can be derived from how
+ * long the answer may be.
+ * Also keeps per call site token metrics: what each call actually used
+ * against the estimate, and how often a completion ran into max_tokens.
+ */
+@Component
+public class TokenBudgeter {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenBudgeter.class);
+
+    // Chat format overhead: role and separators per message, plus priming the reply
+    private static final int CHAT_OVERHEAD_TOKENS = 7;
+
+    // Roughly 4 characters per token in English prose; 3.5 leaves room to finish the sentence
+    private static final double CHARS_PER_TOKEN = 3.5;
+
+    private static final Pattern HEADING_PUNCTUATION = Pattern.compile("[:\\s]+$");
+
+    /**
+     * Resume section headings, most useful for scoring first. The top of the
+     * resume (name and contact details) always goes before any of them; text
+     * under a heading not listed here stays with the section before it.
+     */
+    private static final List<List<String>> SECTION_PRIORITY = List.of(
+            List.of("experience", "work experience", "professional experience", "employment", "work history"),
+            List.of("skills", "technical skills", "core competencies", "technologies"),
+            List.of("education", "academic background"),
+            List.of("projects", "personal projects", "selected projects"),
+            List.of("summary", "profile", "objective", "about me", "professional summary"),
+            List.of("certifications", "certificates", "licenses", "awards", "honors", "achievements"),
+            List.of("publications", "volunteer", "volunteering", "leadership", "activities", "interests",
+                    "languages", "references"));
+
+    /**
+     * Resume text cut down to a token budget, and what was left out.
+     */
+    public record Fitted(String text, int tokens, int sectionsKept, int sectionsTrimmed) {
+    }
+
+    private record Section(int order, int priority, List<String> lines) {
+    }
+
+    private static final class CallStats {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong promptTokens = new AtomicLong();
+        final AtomicLong estimatedPromptTokens = new AtomicLong();
+        final AtomicLong completionTokens = new AtomicLong();
+        final AtomicLong maxTokens = new AtomicLong();
+        final AtomicLong hitMaxTokens = new AtomicLong();
+    }
+
+    private final Encoding encoding;
+    private final int contextTokens;
+    private final Map<String, CallStats> stats = new ConcurrentHashMap<>();
+    private final AtomicLong resumesTrimmed = new AtomicLong();
+
+    public TokenBudgeter(@Value("${openai.model:gpt-3.5-turbo}") String model,
+            @Value("${easepath.openai.context-tokens:0}") int contextTokens) {
+        EncodingRegistry registry = Encodings.newDefaultEncodingRegistry();
+        Optional<ModelType> modelType = ModelType.fromName(model);
+        if (modelType.isEmpty()) {
+            log.warn("Unknown OpenAI model {} - counting tokens with cl100k_base", model);
+        }
+        this.encoding = modelType.map(type -> registry.getEncoding(type.getEncodingType()))
+                .orElseGet(() -> registry.getEncoding(EncodingType.CL100K_BASE));
+        this.contextTokens = contextTokens > 0
+                ? contextTokens
+                : modelType.map(ModelType::getMaxContextLength).orElse(4096);
+    }
+
+    /**
+     * The model's context window: prompt and completion together.
+     */
+    public int getContextTokens() {
+        return contextTokens;
+    }
+
+    public int count(String text) {
+        return text == null || text.isEmpty() ? 0 : encoding.countTokens(text);
+    }
+
+    /**
+     * Tokens a single-message chat prompt takes, including the chat format
+     * overhead.
+     */
+    public int countPrompt(String prompt) {
+        return count(prompt) + CHAT_OVERHEAD_TOKENS;
+    }
+
+    /**
+     * max_tokens for an answer of at most {@code maxChars} characters, or
+     * {@code defaultMaxTokens} if there is no length limit.
+     */
+    public int maxTokensForLength(int maxChars, int defaultMaxTokens) {
+        if (maxChars <= 0) {
+            return defaultMaxTokens;
+        }
+        return (int) Math.ceil(maxChars / CHARS_PER_TOKEN) + 8;
+    }
+
+    /**
+     * max_tokens capped to what the context window leaves after the prompt.
+     * Fails if the prompt alone doesn't fit.
+     */
+    public int clampMaxTokens(int promptTokens, int maxTokens) {
+        int available = contextTokens - promptTokens;
+        if (available <= 0) {
+            throw new IllegalArgumentException("Prompt of " + promptTokens
+                    + " tokens does not fit the model's context of " + contextTokens);
+        }
+        return Math.min(maxTokens, available);
+    }
+
+    /**
+     * Cut a resume down to a token budget by whole sections, in order of how
+     * much they matter for scoring: contact details, experience, skills,
+     * education, projects, summary, then the rest. The section that no longer
+     * fits keeps as many of its first lines as do; every kept line stays in
+     * its original order.
+     */
+    public Fitted fitResume(String resumeText, int budgetTokens) {
+        if (resumeText == null || resumeText.isBlank()) {
+            return new Fitted("", 0, 0, 0);
+        }
+        int total = count(resumeText);
+        List<Section> sections = sections(resumeText);
+        if (total <= budgetTokens) {
+            return new Fitted(resumeText, total, sections.size(), 0);
+        }
+
+        List<Section> byPriority = new ArrayList<>(sections);
+        byPriority.sort(Comparator.comparingInt(Section::priority).thenComparingInt(Section::order));
+        Map<Integer, List<String>> kept = new LinkedHashMap<>();
+        int used = 0;
+        int trimmed = 0;
+        for (Section section : byPriority) {
+            List<String> keptLines = new ArrayList<>();
+            for (String line : section.lines()) {
+                int cost = count(line) + 1;
+                if (used + cost > budgetTokens) {
+                    break;
+                }
+                keptLines.add(line);
+                used += cost;
+            }
+            if (keptLines.size() < section.lines().size()) {
+                trimmed++;
+            }
+            if (!keptLines.isEmpty()) {
+                kept.put(section.order(), keptLines);
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        for (Section section : sections) {
+            List<String> lines = kept.get(section.order());
+            if (lines == null) {
+                continue;
+            }
+            lines.forEach(line -> text.append(line).append('\n'));
+            if (lines.size() < section.lines().size()) {
+                text.append("...\n");
+            }
+        }
+        resumesTrimmed.incrementAndGet();
+        log.info("Resume trimmed from {} to {} tokens ({} of {} sections shortened)", total, used, trimmed,
+                sections.size());
+        return new Fitted(text.toString(), used, kept.size(), trimmed);
+    }
+
+    /**
+     * Record one completion's token usage against the local estimate.
+     */
+    public void record(String callSite, int estimatedPromptTokens, int promptTokens, int completionTokens,
+            int maxTokens) {
+        CallStats s = stats.computeIfAbsent(callSite, site -> new CallStats());
+        s.calls.incrementAndGet();
+        s.estimatedPromptTokens.addAndGet(estimatedPromptTokens);
+        s.promptTokens.addAndGet(promptTokens);
+        s.completionTokens.addAndGet(completionTokens);
+        s.maxTokens.addAndGet(maxTokens);
+        if (completionTokens >= maxTokens) {
+            s.hitMaxTokens.incrementAndGet();
+        }
+        log.info("OpenAI {} tokens: prompt {} (estimated {}), completion {} of max {}", callSite, promptTokens,
+                estimatedPromptTokens, completionTokens, maxTokens);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("encoding", encoding.getName());
+        result.put("contextTokens", contextTokens);
+        result.put("resumesTrimmed", resumesTrimmed.get());
+        Map<String, Object> perCallSite = new LinkedHashMap<>();
+        stats.forEach((callSite, s) -> {
+            long calls = s.calls.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("calls", calls);
+            entry.put("promptTokens", s.promptTokens.get());
+            entry.put("estimatedPromptTokens", s.estimatedPromptTokens.get());
+            entry.put("completionTokens", s.completionTokens.get());
+            entry.put("avgPromptTokens", calls == 0 ? 0 : s.promptTokens.get() / calls);
+            entry.put("avgCompletionTokens", calls == 0 ? 0 : s.completionTokens.get() / calls);
+            entry.put("avgMaxTokens", calls == 0 ? 0 : s.maxTokens.get() / calls);
+            // Completions cut off by max_tokens rather than finishing on their own
+            entry.put("hitMaxTokens", s.hitMaxTokens.get());
+            perCallSite.put(callSite, entry);
+        });
+        result.put("callSites", perCallSite);
+        return result;
+    }
+
+    /**
+     * Split a resume into sections at heading lines. The first section is
+     * ranked first whatever its heading.
+     */
+    private static List<Section> sections(String resumeText) {
+        List<Section> sections = new ArrayList<>();
+        List<String> current = new ArrayList<>();
+        int priority = -1;
+        for (String line : resumeText.split("\\R")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            int headingPriority = headingPriority(line);
+            if (headingPriority >= 0 && !current.isEmpty()) {
+                // The top of the resume (name, contact details) always comes first
+                sections.add(new Section(sections.size(), sections.isEmpty() ? -1 : priority, current));
+                current = new ArrayList<>();
+            }
+            if (headingPriority >= 0) {
+                priority = headingPriority;
+            }
+            current.add(line.strip());
+        }
+        if (!current.isEmpty()) {
+            sections.add(new Section(sections.size(), sections.isEmpty() ? -1 : priority, current));
+        }
+        return sections;
+    }
+
+    /**
+     * The section priority if the line is a heading, else -1. Only short
+     * lines naming a known section count: other lines in capitals are usually
+     * job titles or employers, which belong to the section they are in.
+     */
+    private static int headingPriority(String line) {
+        String trimmed = line.strip();
+        if (trimmed.length() > 40) {
+            return -1;
+        }
+        String name = HEADING_PUNCTUATION.matcher(trimmed.toLowerCase(Locale.ROOT)).replaceAll("");
+        for (int i = 0; i < SECTION_PRIORITY.size(); i++) {
+            if (SECTION_PRIORITY.get(i).contains(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
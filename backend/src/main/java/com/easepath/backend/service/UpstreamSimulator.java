@@ -0,0 +1,430 @@
+package com.easepath.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Local stand-in for the JSearch, TheirStack and OpenAI APIs, so searches,
+ * form analysis and scoring can be load-tested and benchmarked without network
+ * access or spending credits. Enabled by the "test" profile, which points the
+ * provider base URLs and OpenAI endpoints at it.
+ * Runs on its own port and thread pool rather than inside the app's servlet
+ * container, so simulated upstream latency never competes with the requests
+ * being measured. The first path segment picks the upstream
+ * (/jsearch/search, /theirstack/v1/jobs/search, /openai/v1/chat/completions).
+ * <ul>
+ * <li>record: forward to the real upstream and save each response to disk</li>
+ * <li>replay: serve saved responses, with the configured latency, error rate
+ * and 429 injection</li>
+ * <li>record-missing: replay what is saved and record the rest</li>
+ * </ul>
+ * Responses are keyed by method, path, sorted query and request body. In
+ * replay, an unrecorded request gets some other recording of the same
+ * upstream and path (picked deterministically), or a synthetic response when
+ * there is none (see {@link SyntheticUpstream}), so replay works from an
+ * empty recordings directory. miss-policy "synthetic" always synthesizes
+ * misses; "404" fails them.
+ */
+@Component
+@ConditionalOnProperty(name = "easepath.simulator.enabled", havingValue = "true")
+public class UpstreamSimulator {
+
+    private static final Logger log = LoggerFactory.getLogger(UpstreamSimulator.class);
+
+    private static final Map<String, String> DEFAULT_UPSTREAMS = Map.of(
+            "jsearch", "https://jsearch.p.rapidapi.com",
+            "theirstack", "https://api.theirstack.com",
+            "openai", "https://api.openai.com");
+
+    // Request headers that belong to the hop to the simulator, not the upstream
+    private static final Set<String> HOP_HEADERS = Set.of("host", "connection", "content-length",
+            "transfer-encoding", "accept-encoding", "expect", "upgrade", "http2-settings");
+
+    // Response headers worth keeping with a recording; the rate limit ones feed CreditBudgetService
+    private static final List<String> RECORDED_HEADER_PREFIXES = List.of("content-type", "x-ratelimit",
+            "ratelimit", "retry-after");
+
+    private enum Mode {
+        RECORD, REPLAY, RECORD_MISSING
+    }
+
+    /**
+     * A simulated response delay: fixed, uniform between two bounds, or
+     * log-normal with a given median and 99th percentile (long-tailed, like
+     * real APIs).
+     */
+    private record Latency(String kind, double a, double b) {
+
+        static Latency parse(String spec) {
+            if (spec == null || spec.isBlank() || spec.equals("none")) {
+                return new Latency("fixed", 0, 0);
+            }
+            String[] parts = spec.trim().split(":");
+            return switch (parts[0]) {
+                case "fixed" -> new Latency("fixed", Double.parseDouble(parts[1]), 0);
+                case "uniform" -> new Latency("uniform", Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                case "lognormal" -> {
+                    double mu = Math.log(Double.parseDouble(parts[1]));
+                    // 2.326 = z-score of the 99th percentile
+                    double sigma = (Math.log(Double.parseDouble(parts[2])) - mu) / 2.326;
+                    yield new Latency("lognormal", mu, sigma);
+                }
+                default -> throw new IllegalArgumentException("Unknown latency spec: " + spec);
+            };
+        }
+
+        long sampleMillis() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (kind) {
+                case "uniform" -> (long) (a + random.nextDouble() * (b - a));
+                case "lognormal" -> (long) Math.exp(a + b * random.nextGaussian());
+                default -> (long) a;
+            };
+        }
+    }
+
+    /**
+     * Fault and latency settings for one upstream.
+     */
+    private record Profile(Latency latency, double errorRate, double rateLimitRate, int retryAfterSeconds) {
+    }
+
+    private static final class UpstreamStats {
+        final AtomicLong requests = new AtomicLong();
+        final AtomicLong replayed = new AtomicLong();
+        final AtomicLong substituted = new AtomicLong();
+        final AtomicLong synthesized = new AtomicLong();
+        final AtomicLong recorded = new AtomicLong();
+        final AtomicLong misses = new AtomicLong();
+        final AtomicLong injectedErrors = new AtomicLong();
+        final AtomicLong injectedRateLimits = new AtomicLong();
+    }
+
+    private final Environment environment;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+    private final Mode mode;
+    private final Path recordingsDir;
+    private final boolean substituteOnMiss;
+    private final boolean synthesizeOnMiss;
+    private final SyntheticUpstream synthetic = new SyntheticUpstream();
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+    private final Map<String, List<Path>> recordingsByRoute = new ConcurrentHashMap<>();
+    private final Map<String, UpstreamStats> stats = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpServer server;
+
+    public UpstreamSimulator(Environment environment) throws IOException {
+        this.environment = environment;
+        this.mode = Mode.valueOf(environment.getProperty("easepath.simulator.mode", "replay")
+                .trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.recordingsDir = Path.of(environment.getProperty("easepath.simulator.recordings-dir",
+                "simulator-recordings"));
+        String missPolicy = environment.getProperty("easepath.simulator.miss-policy", "any");
+        this.substituteOnMiss = "any".equals(missPolicy);
+        this.synthesizeOnMiss = !"404".equals(missPolicy);
+        loadRecordings();
+
+        int port = environment.getProperty("easepath.simulator.port", Integer.class, 18089);
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 256);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Upstream simulator listening on port {} in {} mode ({} recordings in {})", port, mode,
+                recordingsByRoute.values().stream().mapToInt(List::size).sum(), recordingsDir.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("Upstream simulator stopped: {}", getStats());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode.name());
+        stats.forEach((upstream, s) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("requests", s.requests.get());
+            entry.put("replayed", s.replayed.get());
+            entry.put("substituted", s.substituted.get());
+            entry.put("synthesized", s.synthesized.get());
+            entry.put("recorded", s.recorded.get());
+            entry.put("misses", s.misses.get());
+            entry.put("injectedErrors", s.injectedErrors.get());
+            entry.put("injectedRateLimits", s.injectedRateLimits.get());
+            result.put(upstream, entry);
+        });
+        return result;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String fullPath = exchange.getRequestURI().getRawPath();
+            if (fullPath.equals("/__stats")) {
+                send(exchange, 200, Map.of("Content-Type", "application/json"),
+                        objectMapper.writeValueAsString(getStats()));
+                return;
+            }
+
+            int slash = fullPath.indexOf('/', 1);
+            String upstream = slash > 0 ? fullPath.substring(1, slash) : fullPath.substring(1);
+            String path = slash > 0 ? fullPath.substring(slash) : "/";
+            String baseUrl = environment.getProperty("easepath.simulator." + upstream + ".upstream-url",
+                    DEFAULT_UPSTREAMS.getOrDefault(upstream, ""));
+            if (baseUrl.isEmpty()) {
+                send(exchange, 404, Map.of(), "{\"error\":\"unknown upstream " + upstream + "\"}");
+                return;
+            }
+
+            UpstreamStats s = stats.computeIfAbsent(upstream, name -> new UpstreamStats());
+            s.requests.incrementAndGet();
+            String query = exchange.getRequestURI().getRawQuery();
+            String body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            String route = upstream + "/" + exchange.getRequestMethod() + path.replace('/', '_');
+            Path recording = recordingsDir.resolve(upstream)
+                    .resolve(recordingKey(exchange.getRequestMethod(), path, query, body) + ".json");
+
+            if (mode != Mode.RECORD && Files.exists(recording)) {
+                replay(exchange, upstream, recording, s);
+                s.replayed.incrementAndGet();
+                return;
+            }
+            if (mode != Mode.REPLAY) {
+                record(exchange, baseUrl, path, query, body, recording, route, s);
+                return;
+            }
+
+            List<Path> candidates = recordingsByRoute.getOrDefault(route, List.of());
+            if (substituteOnMiss && !candidates.isEmpty()) {
+                int index = Math.floorMod(recording.getFileName().toString().hashCode(), candidates.size());
+                replay(exchange, upstream, candidates.get(index), s);
+                s.substituted.incrementAndGet();
+                return;
+            }
+            String generated = synthesizeOnMiss ? synthesize(upstream, path, query, body) : null;
+            if (generated != null) {
+                String contentType = generated.startsWith("data:") ? "text/event-stream" : "application/json";
+                respond(exchange, upstream, s, 200, Map.of("Content-Type", contentType), generated);
+                s.synthesized.incrementAndGet();
+                return;
+            }
+            s.misses.incrementAndGet();
+            send(exchange, 404, Map.of("Content-Type", "application/json"),
+                    "{\"error\":\"no recording for " + route + "\"}");
+        } catch (Exception e) {
+            log.warn("Upstream simulator failed to handle {}: {}", exchange.getRequestURI(), e.getMessage());
+        }
+    }
+
+    private void replay(HttpExchange exchange, String upstream, Path recording, UpstreamStats s)
+            throws IOException, InterruptedException {
+        JsonNode saved = objectMapper.readTree(recording.toFile());
+        Map<String, String> headers = new LinkedHashMap<>();
+        saved.path("headers").fields().forEachRemaining(header -> headers.put(header.getKey(),
+                header.getValue().asText()));
+        respond(exchange, upstream, s, saved.path("status").asInt(200), headers, saved.path("body").asText(""));
+    }
+
+    /**
+     * Send a replayed or synthetic response after the upstream's simulated
+     * latency, unless a 429 or error is injected instead.
+     */
+    private void respond(HttpExchange exchange, String upstream, UpstreamStats s, int status,
+            Map<String, String> headers, String body) throws IOException, InterruptedException {
+        Profile profile = profiles.computeIfAbsent(upstream, this::profile);
+        long delayMs = profile.latency().sampleMillis();
+        if (delayMs > 0) {
+            Thread.sleep(delayMs);
+        }
+
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < profile.rateLimitRate()) {
+            s.injectedRateLimits.incrementAndGet();
+            Map<String, String> rateLimitHeaders = new LinkedHashMap<>();
+            rateLimitHeaders.put("Content-Type", "application/json");
+            rateLimitHeaders.put("Retry-After", String.valueOf(profile.retryAfterSeconds()));
+            rateLimitHeaders.put("X-RateLimit-Requests-Remaining", "0");
+            rateLimitHeaders.put("x-ratelimit-remaining-requests", "0");
+            rateLimitHeaders.put("x-ratelimit-reset-requests", profile.retryAfterSeconds() + "s");
+            send(exchange, 429, rateLimitHeaders, "{\"error\":{\"message\":\"Rate limit exceeded (simulated)\"}}");
+            return;
+        }
+        if (roll < profile.rateLimitRate() + profile.errorRate()) {
+            s.injectedErrors.incrementAndGet();
+            send(exchange, 500, Map.of("Content-Type", "application/json"),
+                    "{\"error\":{\"message\":\"Upstream error (simulated)\"}}");
+            return;
+        }
+        send(exchange, status, headers, body);
+    }
+
+    /**
+     * A synthetic response for the known endpoints, or null for anything else.
+     */
+    private String synthesize(String upstream, String path, String query, String body) throws Exception {
+        return switch (upstream + " " + path) {
+            case "jsearch /search" -> synthetic.jsearchSearch(queryParams(query));
+            case "theirstack /v1/jobs/search" -> synthetic.theirStackSearch(body);
+            case "openai /v1/chat/completions" -> body.contains("\"stream\":true")
+                    ? synthetic.openAiCompletionStream(body)
+                    : synthetic.openAiCompletion(body);
+            default -> null;
+        };
+    }
+
+    private static Map<String, String> queryParams(String query) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq >= 0 ? pair.substring(0, eq) : pair, StandardCharsets.UTF_8);
+            params.put(name, eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "");
+        }
+        return params;
+    }
+
+    private void record(HttpExchange exchange, String baseUrl, String path, String query, String body,
+            Path recording, String route, UpstreamStats s) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path
+                + (query != null ? "?" + query : "")))
+                .timeout(Duration.ofSeconds(60))
+                .method(exchange.getRequestMethod(), body.isEmpty()
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> request.header(name, value));
+            }
+        });
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            String lower = name.toLowerCase(Locale.ROOT);
+            if (!values.isEmpty() && RECORDED_HEADER_PREFIXES.stream().anyMatch(lower::startsWith)) {
+                headers.put(name, values.get(0));
+            }
+        });
+
+        // Only successful responses are worth replaying; faults are injected on replay instead
+        if (response.statusCode() < 400) {
+            ObjectNode saved = objectMapper.createObjectNode();
+            saved.put("status", response.statusCode());
+            saved.set("headers", objectMapper.valueToTree(headers));
+            saved.put("route", route);
+            saved.put("query", query);
+            saved.put("body", response.body());
+            Files.createDirectories(recording.getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(recording.toFile(), saved);
+            recordingsByRoute.computeIfAbsent(route, r -> new CopyOnWriteArrayList<>()).add(recording);
+            s.recorded.incrementAndGet();
+        }
+        send(exchange, response.statusCode(), headers, response.body());
+    }
+
+    private Profile profile(String upstream) {
+        String prefix = "easepath.simulator." + upstream + ".";
+        String fallback = "easepath.simulator.default.";
+        return new Profile(
+                Latency.parse(property(prefix, fallback, "latency", "none")),
+                Double.parseDouble(property(prefix, fallback, "error-rate", "0")),
+                Double.parseDouble(property(prefix, fallback, "rate-limit-rate", "0")),
+                Integer.parseInt(property(prefix, fallback, "retry-after-seconds", "1")));
+    }
+
+    private String property(String prefix, String fallback, String name, String defaultValue) {
+        return environment.getProperty(prefix + name, environment.getProperty(fallback + name, defaultValue));
+    }
+
+    /**
+     * Index existing recordings by route, for substitution on replay misses.
+     */
+    private void loadRecordings() throws IOException {
+        if (!Files.isDirectory(recordingsDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(recordingsDir, 2)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                try {
+                    String route = objectMapper.readTree(file.toFile()).path("route").asText("");
+                    if (!route.isEmpty()) {
+                        recordingsByRoute.computeIfAbsent(route, r -> new CopyOnWriteArrayList<>()).add(file);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable simulator recording {}: {}", file, e.getMessage());
+                }
+            }
+        }
+        // Stable order so substitutions are repeatable across runs
+        recordingsByRoute.replaceAll((route, files) -> new CopyOnWriteArrayList<>(files.stream().sorted().toList()));
+    }
+
+    private static String recordingKey(String method, String path, String query, String body) {
+        String sortedQuery = query == null ? "" : Arrays.stream(query.split("&")).sorted()
+                .collect(Collectors.joining("&"));
+        try {
+            byte[] bytes = MessageDigest.getInstance("SHA-256").digest(
+                    (method + "\n" + path + "\n" + sortedQuery + "\n" + body).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes, 0, 16);
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, String> headers, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        headers.forEach((name, value) -> exchange.getResponseHeaders().set(name, value));
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+}
@@ -17,8 +17,10 @@ import com.easepath.backend.model.FormMappingDocument;
 import com.easepath.backend.model.FormMappingDocument.FieldMapping;
 import com.easepath.backend.model.UserProfileDocument;
 import com.easepath.backend.repository.FormMappingRepository;
+import com.easepath.backend.service.FieldMappingCache;
 import com.easepath.backend.service.FormMappingService;
 import com.easepath.backend.service.OpenAIService;
+import com.easepath.backend.util.ProfileFields;
 
 @Service
 public class FormMappingServiceImpl implements FormMappingService {
@@ -27,10 +29,13 @@ public class FormMappingServiceImpl implements FormMappingService {
 
     private final FormMappingRepository formMappingRepository;
     private final OpenAIService openAIService;
+    private final FieldMappingCache fieldMappingCache;
 
-    public FormMappingServiceImpl(FormMappingRepository formMappingRepository, OpenAIService openAIService) {
+    public FormMappingServiceImpl(FormMappingRepository formMappingRepository, OpenAIService openAIService,
+            FieldMappingCache fieldMappingCache) {
         this.formMappingRepository = formMappingRepository;
         this.openAIService = openAIService;
+        this.fieldMappingCache = fieldMappingCache;
     }
 
     @Override
@@ -48,20 +53,22 @@ public class FormMappingServiceImpl implements FormMappingService {
             return applyExistingMapping(existingMapping.get(), fields, profile);
         }
         
-        // 3. Use OpenAI for intelligent field mapping
-        Map<String, String> result;
-        
+        // 3. Work out which profile field each form field takes. OpenAI only sees
+        // the field descriptors, so its answers are cached across users
+        Map<String, String> profileFields;
+
         if (openAIService.isAvailable()) {
             log.info("Using OpenAI GPT-3.5-turbo for intelligent mapping");
-            result = openAIService.analyzeAndMapFields(fields, profile, platform);
+            profileFields = openAIService.mapFieldsToProfileFields(fields, platform);
         } else {
             log.info("OpenAI not available, using heuristic mapping");
-            result = heuristicMapping(fields, profile);
+            profileFields = heuristicMapping(fields);
         }
-        
+        Map<String, String> result = resolveValues(profileFields, profile);
+
         // 4. Learn from this mapping for future use
         if (!result.isEmpty()) {
-            List<FieldMapping> learnedMappings = createFieldMappings(fields, result);
+            List<FieldMapping> learnedMappings = createFieldMappings(fields, profileFields, result);
             saveLearnedMappings(platform, url, learnedMappings);
         }
         
@@ -72,31 +79,44 @@ public class FormMappingServiceImpl implements FormMappingService {
     /**
      * Heuristic-based mapping when OpenAI is unavailable.
      */
-    private Map<String, String> heuristicMapping(List<FormFieldInfo> fields, UserProfileDocument profile) {
+    private Map<String, String> heuristicMapping(List<FormFieldInfo> fields) {
         Map<String, String> result = new HashMap<>();
         
         for (FormFieldInfo field : fields) {
-            String profileField = determineProfileField(field);
-            String value = getProfileValue(profile, profileField);
-            
-            if (profileField != null && value != null && !value.isEmpty()) {
-                String identifier = field.getId() != null && !field.getId().isEmpty() 
-                    ? field.getId() 
-                    : field.getName();
-                    
-                if (identifier != null && !identifier.isEmpty()) {
-                    result.put(identifier, value);
-                }
+            String profileField = ProfileFields.guess(field);
+            String identifier = field.getId() != null && !field.getId().isEmpty() 
+                ? field.getId() 
+                : field.getName();
+                
+            if (profileField != null && identifier != null && !identifier.isEmpty()) {
+                result.put(identifier, profileField);
             }
         }
         
         return result;
     }
+
+    /**
+     * Fill in this user's values for a field -> profile field mapping.
+     */
+    private Map<String, String> resolveValues(Map<String, String> profileFields, UserProfileDocument profile) {
+        Map<String, String> result = new HashMap<>();
+        
+        profileFields.forEach((identifier, profileField) -> {
+            String value = ProfileFields.value(profile, profileField);
+            if (value != null && !value.isEmpty()) {
+                result.put(identifier, value);
+            }
+        });
+        
+        return result;
+    }
     
     /**
      * Create field mappings from the result for learning.
      */
-    private List<FieldMapping> createFieldMappings(List<FormFieldInfo> fields, Map<String, String> result) {
+    private List<FieldMapping> createFieldMappings(List<FormFieldInfo> fields, Map<String, String> profileFields,
+            Map<String, String> result) {
         List<FieldMapping> mappings = new ArrayList<>();
         
         for (FormFieldInfo field : fields) {
@@ -110,7 +130,7 @@ public class FormMappingServiceImpl implements FormMappingService {
                 fm.setFieldLabel(field.getLabel());
                 fm.setFieldType(field.getType());
                 fm.setPlaceholder(field.getPlaceholder());
-                fm.setProfileField(determineProfileField(field));
+                fm.setProfileField(profileFields.get(identifier));
                 fm.setConfidence(0.7); // Initial confidence from AI
                 mappings.add(fm);
             }
@@ -119,162 +139,12 @@ public class FormMappingServiceImpl implements FormMappingService {
         return mappings;
     }
 
-    /**
-     * Determine which profile field a form field should map to.
-     * This is where AI integration would go for smarter matching.
-     */
-    private String determineProfileField(FormFieldInfo field) {
-        String combined = normalize(field.getLabel()) + " " + 
-                         normalize(field.getName()) + " " + 
-                         normalize(field.getId()) + " " +
-                         normalize(field.getPlaceholder());
-        
-        // Pattern matching for common fields
-        if (matches(combined, "first", "name", "fname", "given")) {
-            return "firstName";
-        }
-        if (matches(combined, "last", "name", "lname", "surname", "family")) {
-            return "lastName";
-        }
-        if (matches(combined, "email", "e-mail", "mail")) {
-            return "email";
-        }
-        if (matches(combined, "phone", "tel", "mobile", "cell")) {
-            return "phone";
-        }
-        if (matches(combined, "linkedin")) {
-            return "linkedInUrl";
-        }
-        if (matches(combined, "github")) {
-            return "githubUrl";
-        }
-        if (matches(combined, "portfolio", "website", "personal")) {
-            return "portfolioUrl";
-        }
-        if (matches(combined, "address", "street")) {
-            return "address";
-        }
-        if (matches(combined, "city", "town")) {
-            return "city";
-        }
-        if (matches(combined, "state", "province", "region")) {
-            return "state";
-        }
-        if (matches(combined, "zip", "postal", "postcode")) {
-            return "zipCode";
-        }
-        if (matches(combined, "country", "nation")) {
-            return "country";
-        }
-        if (matches(combined, "authorization", "authorized", "eligib", "work")) {
-            return "workAuthorization";
-        }
-        if (matches(combined, "sponsor", "visa")) {
-            return "requiresSponsorship";
-        }
-        if (matches(combined, "salary", "compensation", "pay")) {
-            return "desiredSalary";
-        }
-        if (matches(combined, "experience", "years")) {
-            return "yearsOfExperience";
-        }
-        if (matches(combined, "degree", "education")) {
-            return "highestDegree";
-        }
-        if (matches(combined, "university", "school", "college")) {
-            return "university";
-        }
-        if (matches(combined, "graduation", "grad year")) {
-            return "graduationYear";
-        }
-        if (matches(combined, "major", "field of study")) {
-            return "major";
-        }
-        
-        // New fields for EEO and preferences
-        if (matches(combined, "veteran", "military")) {
-            return "veteranStatus";
-        }
-        if (matches(combined, "disability", "disabled")) {
-            return "disabilityStatus";
-        }
-        if (matches(combined, "gender", "sex")) {
-            return "gender";
-        }
-        if (matches(combined, "ethnicity", "race", "ethnic", "categories describe")) {
-            return "ethnicity";
-        }
-        if (matches(combined, "lgbtq", "lesbian", "gay", "bisexual", "sexual orientation")) {
-            return "lgbtqIdentity";
-        }
-        if (matches(combined, "citizen", "us citizen", "citizenship")) {
-            return "isUsCitizen";
-        }
-        if (matches(combined, "start date", "availability", "available", "when can")) {
-            return "availableStartDate";
-        }
-        if (matches(combined, "relocate", "willing to move")) {
-            return "willingToRelocate";
-        }
-        if (matches(combined, "job title", "position", "desired position")) {
-            return "desiredJobTitle";
-        }
-        if (matches(combined, "visa type", "h1b", "opt", "ead")) {
-            return "visaType";
-        }
-        if (matches(combined, "preferred location", "location preference")) {
-            return "preferredLocations";
-        }
-        
-        return null;
-    }
-
-    private String getProfileValue(UserProfileDocument profile, String profileField) {
-        if (profile == null || profileField == null) return null;
-        
-        return switch (profileField) {
-            case "firstName" -> profile.getFirstName();
-            case "lastName" -> profile.getLastName();
-            case "email" -> profile.getEmail();
-            case "phone" -> profile.getPhone();
-            case "linkedInUrl" -> profile.getLinkedInUrl();
-            case "githubUrl" -> profile.getGithubUrl();
-            case "portfolioUrl" -> profile.getPortfolioUrl();
-            case "address" -> profile.getAddress();
-            case "city" -> profile.getCity();
-            case "state" -> profile.getState();
-            case "zipCode" -> profile.getZipCode();
-            case "country" -> profile.getCountry();
-            case "workAuthorization" -> profile.getWorkAuthorization();
-            case "requiresSponsorship" -> profile.isRequiresSponsorship() ? "Yes" : "No";
-            case "isUsCitizen" -> profile.isUsCitizen() ? "Yes" : "No";
-            case "hasWorkVisa" -> profile.isHasWorkVisa() ? "Yes" : "No";
-            case "visaType" -> profile.getVisaType();
-            case "desiredSalary" -> profile.getDesiredSalary();
-            case "desiredJobTitle" -> profile.getDesiredJobTitle();
-            case "yearsOfExperience" -> profile.getYearsOfExperience();
-            case "highestDegree" -> profile.getHighestDegree();
-            case "university" -> profile.getUniversity();
-            case "graduationYear" -> profile.getGraduationYear();
-            case "major" -> profile.getMajor();
-            case "veteranStatus" -> profile.getVeteranStatus();
-            case "disabilityStatus" -> profile.getDisabilityStatus();
-            case "gender" -> profile.getGender();
-            case "ethnicity" -> profile.getEthnicity();
-            case "lgbtqIdentity" -> profile.getLgbtqIdentity();
-            case "availableStartDate" -> profile.getAvailableStartDate();
-            case "willingToRelocate" -> profile.isWillingToRelocate() ? "Yes" : "No";
-            case "preferredLocations" -> profile.getPreferredLocations();
-            default -> null;
-        };
-    }
-
     private Map<String, String> applyExistingMapping(FormMappingDocument mapping, 
             List<FormFieldInfo> fields, UserProfileDocument profile) {
         Map<String, String> result = new HashMap<>();
         
         for (FieldMapping fm : mapping.getFieldMappings()) {
-            String value = getProfileValue(profile, fm.getProfileField());
+            String value = ProfileFields.value(profile, fm.getProfileField());
             if (value != null) {
                 String identifier = fm.getFieldId() != null && !fm.getFieldId().isEmpty() 
                     ? fm.getFieldId() 
@@ -318,7 +188,7 @@ public class FormMappingServiceImpl implements FormMappingService {
     }
 
     @Override
-    public void recordCorrection(String url, String fieldId, String correctProfileField) {
+    public void recordCorrection(String url, String fieldId, String correctProfileField, String userEmail) {
         String platform = extractPlatform(url);
         formMappingRepository.findByPlatform(platform).ifPresent(doc -> {
             doc.setCorrectionCount(doc.getCorrectionCount() + 1);
@@ -329,6 +199,10 @@ public class FormMappingServiceImpl implements FormMappingService {
                     if (fieldId.equals(fm.getFieldId()) || fieldId.equals(fm.getFieldName())) {
                         fm.setProfileField(correctProfileField);
                         fm.setConfidence(Math.max(0.3, fm.getConfidence() - 0.1));
+                        // Only a vote: the shared decision changes once enough users agree
+                        if (ProfileFields.isKey(correctProfileField)) {
+                            fieldMappingCache.recordCorrection(toFieldInfo(fm), correctProfileField, userEmail);
+                        }
                         break;
                     }
                 }
@@ -347,6 +221,16 @@ public class FormMappingServiceImpl implements FormMappingService {
         return formMappingRepository.findByPlatform(platform).orElse(null);
     }
 
+    private FormFieldInfo toFieldInfo(FieldMapping fm) {
+        FormFieldInfo field = new FormFieldInfo();
+        field.setId(fm.getFieldId());
+        field.setName(fm.getFieldName());
+        field.setLabel(fm.getFieldLabel());
+        field.setPlaceholder(fm.getPlaceholder());
+        field.setType(fm.getFieldType());
+        return field;
+    }
+
     private void updateConfidenceScore(FormMappingDocument doc) {
         int total = doc.getSuccessCount() + doc.getCorrectionCount();
         if (total > 0) {
@@ -382,17 +266,4 @@ public class FormMappingServiceImpl implements FormMappingService {
             return url;
         }
     }
-
-    private String normalize(String s) {
-        return s == null ? "" : s.toLowerCase().trim();
-    }
-
-    private boolean matches(String text, String... keywords) {
-        for (String keyword : keywords) {
-            if (text.contains(keyword)) {
-                return true;
-            }
-        }
-        return false;
-    }
 }
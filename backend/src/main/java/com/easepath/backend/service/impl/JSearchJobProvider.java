@@ -0,0 +1,105 @@
+package com.easepath.backend.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.easepath.backend.service.CreditBudgetService;
+import com.easepath.backend.service.JobProvider;
+import com.easepath.backend.service.JobSearchKey;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * JSearch (RapidAPI). Already answers in the JSearch format, so the body is
+ * passed through as is.
+ */
+@Component
+@Order(1)
+public class JSearchJobProvider implements JobProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(JSearchJobProvider.class);
+
+    private static final String NAME = "jsearch";
+
+    private final WebClient webClient;
+    private final CreditBudgetService creditBudget;
+
+    @Value("${rapidapi.key:}")
+    private String rapidApiKey;
+
+    @Value("${rapidapi.host:jsearch.p.rapidapi.com}")
+    private String rapidApiHost;
+
+    public JSearchJobProvider(WebClient.Builder webClientBuilder, CreditBudgetService creditBudget,
+            @Value("${rapidapi.base-url:https://jsearch.p.rapidapi.com}") String baseUrl) {
+        this.webClient = webClientBuilder.clone().baseUrl(baseUrl).build();
+        this.creditBudget = creditBudget;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return rapidApiKey != null && !rapidApiKey.isEmpty();
+    }
+
+    /**
+     * One page per request so pages can be fetched in parallel and cached
+     * individually.
+     */
+    @Override
+    public Mono<String> search(JobSearchKey key) {
+        log.info("🔍 Trying JSearch API for: {}", key.query());
+        return webClient.get()
+                .uri(uriBuilder -> {
+                    uriBuilder.path("/search")
+                            .queryParam("query", key.query())
+                            .queryParam("page", key.page())
+                            .queryParam("num_pages", "1")
+                            .queryParam("date_posted", key.datePosted());
+
+                    if (key.remoteJobsOnly()) {
+                        uriBuilder.queryParam("remote_jobs_only", "true");
+                    }
+                    if (!key.employmentTypes().isEmpty()) {
+                        uriBuilder.queryParam("employment_types", key.employmentTypes());
+                    }
+                    if (!key.jobRequirements().isEmpty()) {
+                        uriBuilder.queryParam("job_requirements", key.jobRequirements());
+                    }
+
+                    return uriBuilder.build();
+                })
+                .header("X-RapidAPI-Key", rapidApiKey)
+                .header("X-RapidAPI-Host", rapidApiHost)
+                .retrieve()
+                .toEntity(String.class)
+                .doOnNext(entity -> recordRateLimitHeaders(entity.getHeaders()))
+                .doOnError(WebClientResponseException.class, e -> recordRateLimitHeaders(e.getHeaders()))
+                .mapNotNull(ResponseEntity::getBody)
+                .doOnNext(response -> log.info(" JSearch returned results"))
+                .doOnError(WebClientResponseException.TooManyRequests.class,
+                        e -> log.warn("⚠️ JSearch rate limited"))
+                .doOnError(e -> !(e instanceof WebClientResponseException.TooManyRequests),
+                        e -> log.warn("⚠️ JSearch failed: {}", e.getMessage()));
+    }
+
+    /**
+     * Pass the X-RateLimit-* headers to the shared credit budget without
+     * blocking the calling (event loop) thread.
+     */
+    private void recordRateLimitHeaders(HttpHeaders headers) {
+        Schedulers.boundedElastic().schedule(() -> creditBudget.recordRateLimitHeaders(NAME, headers));
+    }
+}
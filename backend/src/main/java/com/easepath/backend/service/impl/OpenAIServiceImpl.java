@@ -1,24 +1,60 @@
 package com.easepath.backend.service.impl;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
 import com.easepath.backend.model.UserProfileDocument;
+import com.easepath.backend.service.CompletionCache;
+import com.easepath.backend.service.CompletionCache.Completion;
+import com.easepath.backend.service.CreditBudgetService.Priority;
+import com.easepath.backend.service.FieldMappingCache;
+import com.easepath.backend.service.OpenAiCallScheduler;
+import com.easepath.backend.service.TokenBudgeter;
+import com.easepath.backend.service.TokenBudgeter.Fitted;
 import com.easepath.backend.service.OpenAIService;
+import com.easepath.backend.util.ProfileFields;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
 /**
  * OpenAI GPT-3.5-turbo implementation for intelligent form analysis.
  */
@@ -27,8 +63,100 @@ public class OpenAIServiceImpl implements OpenAIService {
 
     private static final Logger log = LoggerFactory.getLogger(OpenAIServiceImpl.class);
 
+    private static final double TEMPERATURE = 0.3; // Lower temperature for more consistent responses
+    private static final int MAX_TOKENS = 1000;
+
+    // The score JSON plus a one-line message
+    private static final int SCORE_MAX_TOKENS = 150;
+
+    // Per field of a mapping answer, e.g. "12": "linkedInUrl",
+    private static final int MAPPING_TOKENS_PER_FIELD = 10;
+
+    // One component of a rate limit reset duration, e.g. the "6m" and "0s" of "6m0s"
+    private static final Pattern RESET_DURATION = Pattern.compile("(\\d+(?:\\.\\d+)?)(ms|s|m|h)");
+
+    /**
+     * Where a completion is requested from, and the priority its calls get in
+     * the {@link OpenAiCallScheduler}. Each call site can be taken out of the
+     * completion cache with easepath.openai.cache.bypass-call-sites.
+     */
+    private enum CallSite {
+        FIELD_MAPPING(Priority.INTERACTIVE),
+        GENERATE_ANSWER(Priority.INTERACTIVE),
+        SCORE_RESUME(Priority.BACKGROUND);
+
+        final Priority priority;
+
+        CallSite(Priority priority) {
+            this.priority = priority;
+        }
+
+        String propertyName() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE_CHUNK =
+            new ParameterizedTypeReference<>() {
+            };
+
+    /**
+     * One streamed answer: the text relayed so far, cut at a word boundary
+     * where it would pass maxLength, and how long the first of it took.
+     */
+    private static final class AnswerStream {
+        final int maxLength;
+        final long startedAt = System.nanoTime();
+        final StringBuilder relayed = new StringBuilder();
+        // The completion as OpenAI sent it, uncut, for the cache
+        final StringBuilder completion = new StringBuilder();
+        long firstTokenMs = -1;
+        boolean fromCache;
+        boolean truncated;
+        int promptTokens;
+        int completionTokens;
+
+        AnswerStream(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Relay a piece of text, or the part of it that fits and "...", then
+         * complete, which cancels the rest of the completion.
+         */
+        void append(String text, SynchronousSink<String> sink) {
+            if (maxLength <= 0 || relayed.length() + text.length() <= maxLength) {
+                relay(text, sink);
+                return;
+            }
+            // The cut a whole answer gets: the last space within maxLength, unless that loses over half
+            String all = relayed + text;
+            int cut = all.lastIndexOf(' ', maxLength);
+            if (cut == -1 || cut < maxLength / 2) {
+                cut = maxLength;
+            }
+            String rest = cut > relayed.length() ? all.substring(relayed.length(), cut).stripTrailing() : "";
+            relay(rest + "...", sink);
+            truncated = true;
+            sink.complete();
+        }
+
+        private void relay(String text, SynchronousSink<String> sink) {
+            if (firstTokenMs < 0) {
+                firstTokenMs = (System.nanoTime() - startedAt) / 1_000_000;
+            }
+            relayed.append(text);
+            sink.next(text);
+        }
+    }
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final CompletionCache completionCache;
+    private final FieldMappingCache fieldMappingCache;
+    private final OpenAiCallScheduler callScheduler;
+    private final TokenBudgeter tokenBudgeter;
+    private final Set<String> cacheBypassCallSites;
 
     @Value("${openai.api-key:}")
     private String apiKey;
@@ -39,9 +167,39 @@ public class OpenAIServiceImpl implements OpenAIService {
     @Value("${openai.endpoint:https://api.openai.com/v1/chat/completions}")
     private String endpoint;
 
-    public OpenAIServiceImpl(WebClient.Builder webClientBuilder) {
+    // Most of a resume the scoring prompt may carry, in tokens
+    @Value("${easepath.openai.score.resume-max-tokens:3000}")
+    private int scoreResumeMaxTokens;
+
+    @Value("${easepath.openai.retry.max-attempts:4}")
+    private int retryMaxAttempts;
+
+    @Value("${easepath.openai.retry.base-delay-ms:500}")
+    private long retryBaseDelayMs;
+
+    @Value("${easepath.openai.retry.max-delay-ms:8000}")
+    private long retryMaxDelayMs;
+
+    // Total time a call may take including retries, by priority
+    @Value("${easepath.openai.retry.interactive-deadline-ms:15000}")
+    private long interactiveDeadlineMs;
+
+    @Value("${easepath.openai.retry.background-deadline-ms:60000}")
+    private long backgroundDeadlineMs;
+
+    public OpenAIServiceImpl(WebClient.Builder webClientBuilder, CompletionCache completionCache,
+            FieldMappingCache fieldMappingCache, OpenAiCallScheduler callScheduler, TokenBudgeter tokenBudgeter,
+            @Value("${easepath.openai.cache.bypass-call-sites:}") String cacheBypassCallSites) {
         this.webClient = webClientBuilder.build();
         this.objectMapper = new ObjectMapper();
+        this.completionCache = completionCache;
+        this.fieldMappingCache = fieldMappingCache;
+        this.callScheduler = callScheduler;
+        this.tokenBudgeter = tokenBudgeter;
+        this.cacheBypassCallSites = Arrays.stream(cacheBypassCallSites.split(","))
+                .map(site -> site.trim().toLowerCase(Locale.ROOT))
+                .filter(site -> !site.isEmpty())
+                .collect(Collectors.toSet());
     }
 
     @Override
@@ -50,83 +208,169 @@ public class OpenAIServiceImpl implements OpenAIService {
     }
 
     @Override
-    public Map<String, String> analyzeAndMapFields(
-            List<FormFieldInfo> fields,
-            UserProfileDocument profile,
-            String platformName) {
-
-        Map<String, String> mapping = new HashMap<>();
+    public Map<String, String> mapFieldsToProfileFields(List<FormFieldInfo> fields, String platformName) {
+        Map<String, FormFieldInfo> bySignature = new LinkedHashMap<>();
+        for (FormFieldInfo field : fields) {
+            if (identifier(field) != null) {
+                bySignature.putIfAbsent(FieldMappingCache.signature(field), field);
+            }
+        }
 
+        Map<String, String> decided = new HashMap<>();
         if (!isAvailable()) {
             log.warn("OpenAI API key not configured - using fallback mapping");
-            return fallbackMapping(fields, profile);
+            bySignature.forEach((signature, field) -> decided.put(signature, ProfileFields.guess(field)));
+            return byIdentifier(fields, decided);
+        }
+
+        decided.putAll(fieldMappingCache.getAll(bySignature.keySet()));
+        List<String> unknown = bySignature.keySet().stream()
+                .filter(signature -> !decided.containsKey(signature))
+                .toList();
+
+        if (!unknown.isEmpty()) {
+            try {
+                List<FormFieldInfo> unknownFields = unknown.stream().map(bySignature::get).toList();
+                String response = callOpenAI(CallSite.FIELD_MAPPING, buildMappingPrompt(unknownFields),
+                        16 + MAPPING_TOKENS_PER_FIELD * unknownFields.size(), false,
+                        content -> parses(() -> parseFieldMappingResponse(content, unknown)));
+                Map<String, String> answered = parseFieldMappingResponse(response, unknown);
+
+                Map<String, String> labels = new HashMap<>();
+                unknown.forEach(signature -> labels.put(signature, bySignature.get(signature).getLabel()));
+                fieldMappingCache.putAll(answered, labels);
+                decided.putAll(answered);
+                log.info("OpenAI mapped {} new fields for platform {} ({} from cache)",
+                        unknown.size(), platformName, bySignature.size() - unknown.size());
+            } catch (Exception e) {
+                log.error("OpenAI API error, using fallback: {}", e.getMessage());
+                unknown.forEach(signature -> decided.put(signature, ProfileFields.guess(bySignature.get(signature))));
+            }
+        } else {
+            log.info("All {} fields for platform {} mapped from cache", bySignature.size(), platformName);
         }
+        return byIdentifier(fields, decided);
+    }
 
-        try {
-            // Build the prompt for GPT
-            String prompt = buildMappingPrompt(fields, profile);
-
-            // Call OpenAI API
-            String response = callOpenAI(prompt);
-
-            // Parse the response
-            mapping = parseFieldMappingResponse(response, fields, profile);
-
-            log.info("OpenAI mapped {} fields for platform {}", mapping.size(), platformName);
-
-        } catch (Exception e) {
-            log.error("OpenAI API error, using fallback: {}", e.getMessage());
-            return fallbackMapping(fields, profile);
+    /**
+     * Key decisions by the field id or name the extension fills in, dropping
+     * fields no profile field fits.
+     */
+    private Map<String, String> byIdentifier(List<FormFieldInfo> fields, Map<String, String> decided) {
+        Map<String, String> mapping = new HashMap<>();
+        for (FormFieldInfo field : fields) {
+            String identifier = identifier(field);
+            if (identifier == null) {
+                continue;
+            }
+            String profileField = decided.get(FieldMappingCache.signature(field));
+            if (profileField != null) {
+                mapping.put(identifier, profileField);
+            }
         }
-
         return mapping;
     }
 
+    private static String identifier(FormFieldInfo field) {
+        String identifier = field.getId() != null && !field.getId().isEmpty() ? field.getId() : field.getName();
+        return identifier == null || identifier.isEmpty() ? null : identifier;
+    }
+
     @Override
     public String generateAnswer(String question, UserProfileDocument profile,
-            String jobTitle, String company) {
+            String jobTitle, String company, boolean fresh, int maxLength) {
         if (!isAvailable()) {
             return null;
         }
 
         try {
-            String prompt = String.format("""
-                    You are helping a job applicant answer application questions.
-
-                    Applicant Profile:
-                    - Name: %s %s
-                    - Experience: %s years
-                    - Desired Role: %s
-                    - Education: %s in %s from %s
-
-                    Job Details:
-                    - Position: %s
-                    - Company: %s
+            String prompt = buildAnswerPrompt(question, profile, jobTitle, company, maxLength);
 
-                    Question: %s
-
-                    Write a professional, concise answer (2-3 sentences) that:
-                    1. Is specific and authentic
-                    2. Highlights relevant experience
-                    3. Shows enthusiasm for the role
-
-                    Answer:""",
-                    profile.getFirstName(), profile.getLastName(),
-                    profile.getYearsOfExperience(),
-                    profile.getDesiredJobTitle(),
-                    profile.getHighestDegree(), profile.getMajor(), profile.getUniversity(),
-                    jobTitle != null ? jobTitle : "the position",
-                    company != null ? company : "the company",
-                    question);
-
-            return callOpenAI(prompt);
+            // Stop generating around the requested length rather than paying for text that gets cut
+            return callOpenAI(CallSite.GENERATE_ANSWER, prompt,
+                    tokenBudgeter.maxTokensForLength(maxLength, MAX_TOKENS), fresh);
 
+        } catch (RejectedExecutionException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to generate answer: {}", e.getMessage());
             return null;
         }
     }
 
+    @Override
+    public Flux<String> streamAnswer(String question, UserProfileDocument profile,
+            String jobTitle, String company, boolean fresh, int maxLength) {
+        if (!isAvailable()) {
+            return Flux.error(new IllegalStateException("OpenAI API key not configured"));
+        }
+
+        return Flux.defer(() -> {
+            AnswerStream answer = new AnswerStream(maxLength);
+            String prompt = buildAnswerPrompt(question, profile, jobTitle, company, maxLength);
+            int promptTokens = tokenBudgeter.countPrompt(prompt);
+            int maxTokens = tokenBudgeter.clampMaxTokens(promptTokens,
+                    tokenBudgeter.maxTokensForLength(maxLength, MAX_TOKENS));
+            // Same key as generateAnswer, so streamed and whole answers share cache entries
+            String cacheKey = CompletionCache.key(model, TEMPERATURE, maxTokens, prompt);
+
+            Mono<Completion> cached;
+            if (fresh || cacheBypassCallSites.contains(CallSite.GENERATE_ANSWER.propertyName())) {
+                completionCache.recordBypass();
+                cached = Mono.empty();
+            } else {
+                // A miss in memory goes to Mongo, so not on the caller's thread
+                cached = Mono.fromCallable(() -> completionCache.get(cacheKey))
+                        .subscribeOn(Schedulers.boundedElastic());
+            }
+
+            return cached
+                    .flatMapMany(completion -> {
+                        answer.fromCache = true;
+                        log.info("OpenAI completion for {} served from cache", CallSite.GENERATE_ANSWER);
+                        return Flux.just(completion.content());
+                    })
+                    .switchIfEmpty(Flux.defer(() -> streamCompletion(prompt, promptTokens, maxTokens, cacheKey,
+                            answer)))
+                    .<String>handle(answer::append)
+                    .doFinally(signal -> callScheduler.recordStream(answer.firstTokenMs,
+                            (System.nanoTime() - answer.startedAt) / 1_000_000, answer.fromCache, answer.truncated));
+        });
+    }
+
+    private String buildAnswerPrompt(String question, UserProfileDocument profile, String jobTitle, String company,
+            int maxLength) {
+        return String.format("""
+                You are helping a job applicant answer application questions.
+
+                Applicant Profile:
+                - Name: %s %s
+                - Experience: %s years
+                - Desired Role: %s
+                - Education: %s in %s from %s
+
+                Job Details:
+                - Position: %s
+                - Company: %s
+
+                Question: %s
+
+                Write a professional, concise answer (2-3 sentences%s) that:
+                1. Is specific and authentic
+                2. Highlights relevant experience
+                3. Shows enthusiasm for the role
+
+                Answer:""",
+                profile.getFirstName(), profile.getLastName(),
+                profile.getYearsOfExperience(),
+                profile.getDesiredJobTitle(),
+                profile.getHighestDegree(), profile.getMajor(), profile.getUniversity(),
+                jobTitle != null ? jobTitle : "the position",
+                company != null ? company : "the company",
+                question,
+                maxLength > 0 ? ", at most " + maxLength + " characters" : "");
+    }
+
     @Override
     public void learnFromAnswer(String question, String userAnswer, String userEmail) {
         // Store for future reference - the actual learning happens in
@@ -136,40 +380,18 @@ public class OpenAIServiceImpl implements OpenAIService {
     }
 
     /**
-     * Build a prompt for GPT to analyze form fields and map to profile data.
+     * Build a prompt for GPT to map form fields to profile field names. Only
+     * the field descriptors and the names of the profile fields go in, never
+     * the user's values, so the answer holds for every user.
      */
-    private String buildMappingPrompt(List<FormFieldInfo> fields, UserProfileDocument profile) {
+    private String buildMappingPrompt(List<FormFieldInfo> fields) {
         StringBuilder sb = new StringBuilder();
 
-        sb.append("You are a form-filling assistant. Map these form fields to the user's data.\n\n");
-
-        sb.append("USER DATA:\n");
-        sb.append("firstName: ").append(profile.getFirstName()).append("\n");
-        sb.append("lastName: ").append(profile.getLastName()).append("\n");
-        sb.append("email: ").append(profile.getEmail()).append("\n");
-        sb.append("phone: ").append(profile.getPhone()).append("\n");
-        sb.append("linkedInUrl: ").append(profile.getLinkedInUrl()).append("\n");
-        sb.append("githubUrl: ").append(profile.getGithubUrl()).append("\n");
-        sb.append("address: ").append(profile.getAddress()).append("\n");
-        sb.append("city: ").append(profile.getCity()).append("\n");
-        sb.append("state: ").append(profile.getState()).append("\n");
-        sb.append("zipCode: ").append(profile.getZipCode()).append("\n");
-        sb.append("country: ").append(profile.getCountry()).append("\n");
-        sb.append("isUsCitizen: ").append(profile.isUsCitizen() ? "Yes" : "No").append("\n");
-        sb.append("requiresSponsorship: ").append(profile.isRequiresSponsorship() ? "Yes" : "No").append("\n");
-        sb.append("workAuthorization: ").append(profile.getWorkAuthorization()).append("\n");
-        sb.append("willingToRelocate: ").append(profile.isWillingToRelocate() ? "Yes" : "No").append("\n");
-        sb.append("desiredSalary: ").append(profile.getDesiredSalary()).append("\n");
-        sb.append("yearsOfExperience: ").append(profile.getYearsOfExperience()).append("\n");
-        sb.append("highestDegree: ").append(profile.getHighestDegree()).append("\n");
-        sb.append("university: ").append(profile.getUniversity()).append("\n");
-        sb.append("major: ").append(profile.getMajor()).append("\n");
-        sb.append("graduationYear: ").append(profile.getGraduationYear()).append("\n");
-        sb.append("veteranStatus: ").append(profile.getVeteranStatus()).append("\n");
-        sb.append("disabilityStatus: ").append(profile.getDisabilityStatus()).append("\n");
-        sb.append("gender: ").append(profile.getGender()).append("\n");
-        sb.append("ethnicity: ").append(profile.getEthnicity()).append("\n");
-        sb.append("availableStartDate: ").append(profile.getAvailableStartDate()).append("\n");
+        sb.append("You are a form-filling assistant. For each form field, pick the user profile field ");
+        sb.append("whose value belongs in it.\n\n");
+
+        sb.append("PROFILE FIELDS:\n");
+        sb.append(String.join(", ", ProfileFields.KEYS)).append("\n");
 
         sb.append("\nFORM FIELDS:\n");
         for (int i = 0; i < fields.size(); i++) {
@@ -178,211 +400,364 @@ public class OpenAIServiceImpl implements OpenAIService {
                     i + 1, f.getId(), f.getName(), f.getLabel(), f.getPlaceholder(), f.getType()));
         }
 
-        sb.append("\nRESPOND WITH JSON ONLY - map field id/name to the value from user data.");
-        sb.append("\nFormat: {\"fieldIdOrName\": \"value\", ...}");
-        sb.append("\nOnly include fields you can confidently fill. Skip unknown fields.");
+        sb.append("\nRESPOND WITH JSON ONLY - map each form field number to a profile field name, ");
+        sb.append("or null if none fits.");
+        sb.append("\nFormat: {\"1\": \"firstName\", \"2\": null, ...}");
+        sb.append("\nFree-text questions (cover letters, \"why this company\") map to null.");
 
         return sb.toString();
     }
 
     /**
-     * Call OpenAI chat completions API.
+     * Call OpenAI chat completions API, answering repeated requests from the
+     * completion cache. {@code fresh} skips the cache lookup (the new answer
+     * still replaces the cached one). {@code maxTokens} is capped to what the
+     * model's context leaves after the prompt. Calls that miss the cache wait
+     * for a slot in the call scheduler and may be rejected with a
+     * {@link RejectedExecutionException} when it is saturated.
+     */
+    private String callOpenAI(CallSite callSite, String prompt, int maxTokens, boolean fresh) throws Exception {
+        return callOpenAI(callSite, prompt, maxTokens, fresh, content -> true);
+    }
+
+    /**
+     * As above, but only completions the call site can use are cached:
+     * {@code usable} is checked before storing a fresh completion and on every
+     * cache hit, so a reply the caller can't parse is neither kept for the
+     * cache TTL nor served again.
      */
-    private String callOpenAI(String prompt) {
+    private String callOpenAI(CallSite callSite, String prompt, int maxTokens, boolean fresh,
+            Predicate<String> usable) throws Exception {
+        int promptTokens = tokenBudgeter.countPrompt(prompt);
+        int completionTokens = tokenBudgeter.clampMaxTokens(promptTokens, maxTokens);
+        String cacheKey = CompletionCache.key(model, TEMPERATURE, completionTokens, prompt);
+        boolean bypass = fresh || cacheBypassCallSites.contains(callSite.propertyName());
+        if (bypass) {
+            completionCache.recordBypass();
+        } else {
+            Completion cached = completionCache.get(cacheKey);
+            if (cached != null && !usable.test(cached.content())) {
+                log.warn("Ignoring unusable cached OpenAI completion for {}", callSite);
+            } else if (cached != null) {
+                log.info("OpenAI completion for {} served from cache", callSite);
+                return cached.content();
+            }
+        }
+
+        Completion completion = requestWithRetry(callSite, prompt, completionTokens);
+        tokenBudgeter.record(callSite.propertyName(), promptTokens, completion.promptTokens(),
+                completion.completionTokens(), completionTokens);
+        if (usable.test(completion.content())) {
+            completionCache.put(cacheKey, model, completion);
+        }
+        return completion.content();
+    }
+
+    /**
+     * True if parsing a completion succeeds.
+     */
+    private static boolean parses(Callable<?> parse) {
+        try {
+            parse.call();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Request a completion through the call scheduler, retrying throttled and
+     * transient failures until the call site's deadline. A retry waits as long
+     * as OpenAI asked (Retry-After, or until its rate limit window resets),
+     * otherwise for an exponentially growing, fully jittered backoff, so
+     * throttled callers don't all come back at once.
+     */
+    private Completion requestWithRetry(CallSite callSite, String prompt, int maxTokens) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(
+                callSite.priority == Priority.INTERACTIVE ? interactiveDeadlineMs : backgroundDeadlineMs);
+        for (int attempt = 1;; attempt++) {
+            try {
+                return callScheduler.execute(callSite.priority,
+                        () -> requestCompletion(prompt, maxTokens, deadline));
+            } catch (WebClientResponseException | WebClientRequestException e) {
+                if (!isRetryable(e)) {
+                    throw e;
+                }
+                long delayMs = e instanceof WebClientResponseException response
+                        ? pauseMillis(response.getHeaders())
+                        : 0;
+                if (delayMs > 0) {
+                    // Spread callers told the same Retry-After over a short window
+                    delayMs += ThreadLocalRandom.current().nextLong(delayMs / 5 + 1);
+                } else {
+                    long ceiling = Math.min(retryMaxDelayMs, retryBaseDelayMs << Math.min(attempt - 1, 20));
+                    delayMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+                }
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (attempt >= retryMaxAttempts || delayMs >= remainingMs) {
+                    callScheduler.recordRetry(true);
+                    log.warn("OpenAI {} call failed after {} attempt(s): {}", callSite, attempt, e.getMessage());
+                    throw e;
+                }
+                callScheduler.recordRetry(false);
+                log.info("OpenAI {} call failed ({}), retry {} in {} ms", callSite, e.getMessage(), attempt, delayMs);
+                Thread.sleep(delayMs);
+            }
+        }
+    }
+
+    private Completion requestCompletion(String prompt, int maxTokens, long deadline) throws Exception {
         // Log API key prefix for debugging (first 10 chars only for security)
         String keyPrefix = apiKey != null && apiKey.length() > 10 ? apiKey.substring(0, 10) + "..." : "null/short";
         log.info("Calling OpenAI API - endpoint: {}, model: {}, key prefix: {}", endpoint, model, keyPrefix);
 
-        Map<String, Object> requestBody = new HashMap<>();
-        requestBody.put("model", model);
-
-        List<Map<String, String>> messages = new ArrayList<>();
-        messages.add(Map.of("role", "user", "content", prompt));
-        requestBody.put("messages", messages);
-        requestBody.put("temperature", 0.3); // Lower temperature for more consistent responses
-        requestBody.put("max_tokens", 1000);
+        Map<String, Object> requestBody = requestBody(prompt, maxTokens);
 
+        ResponseEntity<String> response;
         try {
-            String responseBody = webClient.post()
+            response = webClient.post()
                     .uri(endpoint)
                     .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
                     .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                     .bodyValue(requestBody)
                     .retrieve()
-                    .onStatus(status -> status.isError(), response -> {
-                        return response.bodyToMono(String.class)
-                                .flatMap(errorBody -> {
-                                    log.error("OpenAI API error response: status={}, body={}",
-                                            response.statusCode(), errorBody);
-                                    return reactor.core.publisher.Mono.error(
-                                            new RuntimeException(
-                                                    "OpenAI API error " + response.statusCode() + ": " + errorBody));
-                                });
-                    })
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.info("OpenAI API response received successfully");
-
-            // Parse the response to extract the content
-            JsonNode root = objectMapper.readTree(responseBody);
-            String content = root.path("choices").get(0).path("message").path("content").asText();
-            log.info("Extracted content length: {} chars", content != null ? content.length() : 0);
-            return content;
-
+                    .toEntity(String.class)
+                    .block(Duration.ofNanos(Math.max(1, deadline - System.nanoTime())));
+        } catch (WebClientResponseException e) {
+            log.error("OpenAI API error response: status={}, body={}", e.getStatusCode(),
+                    e.getResponseBodyAsString());
+            if (e.getStatusCode().value() == 429 && isRetryable(e)) {
+                callScheduler.recordThrottled(pauseMillis(e.getHeaders()));
+            }
+            throw e;
         } catch (Exception e) {
             log.error("OpenAI API call failed: {} - {}", e.getClass().getSimpleName(), e.getMessage());
-            throw new RuntimeException("OpenAI API call failed: " + e.getMessage(), e);
+            throw e;
         }
+        callScheduler.recordSuccess(pauseMillis(response.getHeaders()));
+
+        log.info("OpenAI API response received successfully");
+
+        // Parse the response to extract the content
+        JsonNode root = objectMapper.readTree(response.getBody());
+        String content = root.path("choices").get(0).path("message").path("content").asText();
+        log.info("Extracted content length: {} chars", content != null ? content.length() : 0);
+        JsonNode usage = root.path("usage");
+        return new Completion(content, usage.path("prompt_tokens").asInt(0),
+                usage.path("completion_tokens").asInt(0));
     }
 
     /**
-     * Parse the GPT response into field mappings.
+     * Stream a completion through the call scheduler, holding a slot until
+     * the stream ends or is cancelled. Failures are retried like
+     * {@link #requestWithRetry}, but only until the first text has been
+     * relayed; a throttled retry also waits out Retry-After, since the
+     * scheduler admits nothing until then. The interactive deadline bounds the
+     * time to first text and any stall after it. A stream that runs to the end
+     * is cached whole, as generateAnswer would have cached it.
      */
-    private Map<String, String> parseFieldMappingResponse(
-            String response, List<FormFieldInfo> fields, UserProfileDocument profile) {
-
-        Map<String, String> result = new HashMap<>();
+    private Flux<String> streamCompletion(String prompt, int promptTokens, int maxTokens, String cacheKey,
+            AnswerStream answer) {
+        Map<String, Object> requestBody = requestBody(prompt, maxTokens);
+        requestBody.put("stream", true);
+        // The last chunk then carries the usage, as a whole response does
+        requestBody.put("stream_options", Map.of("include_usage", true));
+        log.info("Streaming OpenAI API - endpoint: {}, model: {}", endpoint, model);
+
+        Flux<String> attempt = Flux.using(
+                () -> callScheduler.open(CallSite.GENERATE_ANSWER.priority),
+                permit -> {
+                    answer.completion.setLength(0);
+                    return webClient.post()
+                            .uri(endpoint)
+                            .header(HttpHeaders.AUTHORIZATION, "Bearer " + apiKey)
+                            .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .bodyValue(requestBody)
+                            .retrieve()
+                            .toEntityFlux(SSE_CHUNK)
+                            .flatMapMany(response -> {
+                                callScheduler.recordSuccess(pauseMillis(response.getHeaders()));
+                                return response.getBody();
+                            })
+                            .takeWhile(event -> !"[DONE]".equals(event.data()))
+                            .<String>handle((event, sink) -> parseChunk(event.data(), answer, sink))
+                            .doOnError(e -> {
+                                permit.failed();
+                                if (e instanceof WebClientResponseException response
+                                        && response.getStatusCode().value() == 429 && isRetryable(response)) {
+                                    callScheduler.recordThrottled(pauseMillis(response.getHeaders()));
+                                }
+                            });
+                },
+                OpenAiCallScheduler.Permit::close)
+                // Waiting for a slot blocks
+                .subscribeOn(Schedulers.boundedElastic());
+
+        return attempt
+                .retryWhen(Retry.backoff(retryMaxAttempts - 1, Duration.ofMillis(retryBaseDelayMs))
+                        .maxBackoff(Duration.ofMillis(retryMaxDelayMs))
+                        .filter(e -> answer.firstTokenMs < 0 && e instanceof Exception ex && isRetryable(ex))
+                        .doBeforeRetry(signal -> {
+                            callScheduler.recordRetry(false);
+                            log.info("OpenAI {} stream failed ({}), retry {}", CallSite.GENERATE_ANSWER,
+                                    signal.failure().getMessage(), signal.totalRetries() + 1);
+                        })
+                        .onRetryExhaustedThrow((spec, signal) -> {
+                            callScheduler.recordRetry(true);
+                            return signal.failure();
+                        }))
+                .timeout(Duration.ofMillis(interactiveDeadlineMs))
+                .doOnError(e -> log.error("OpenAI stream failed: {} - {}", e.getClass().getSimpleName(),
+                        e.getMessage()))
+                .doOnComplete(() -> {
+                    Completion completion = new Completion(answer.completion.toString(), answer.promptTokens,
+                            answer.completionTokens);
+                    if (completion.promptTokens() > 0) {
+                        tokenBudgeter.record(CallSite.GENERATE_ANSWER.propertyName(), promptTokens,
+                                completion.promptTokens(), completion.completionTokens(), maxTokens);
+                    }
+                    Schedulers.boundedElastic().schedule(() -> completionCache.put(cacheKey, model, completion));
+                });
+    }
 
+    /**
+     * Relay the text of one streamed chunk and note the usage if it is the
+     * last one. Keep-alive events carry no data.
+     */
+    private void parseChunk(String data, AnswerStream answer, SynchronousSink<String> sink) {
+        if (data == null || data.isBlank()) {
+            return;
+        }
         try {
-            // Try to parse as JSON
-            String jsonStr = response.trim();
-            // Handle if response is wrapped in markdown code blocks
-            if (jsonStr.startsWith("```")) {
-                jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "");
+            JsonNode chunk = objectMapper.readTree(data);
+            JsonNode usage = chunk.path("usage");
+            if (usage.isObject()) {
+                answer.promptTokens = usage.path("prompt_tokens").asInt(0);
+                answer.completionTokens = usage.path("completion_tokens").asInt(0);
             }
-
-            JsonNode mapping = objectMapper.readTree(jsonStr);
-            mapping.fields().forEachRemaining(entry -> {
-                String value = entry.getValue().asText();
-                if (value != null && !value.isEmpty() && !value.equals("null")) {
-                    result.put(entry.getKey(), value);
-                }
-            });
-
-        } catch (Exception e) {
-            log.warn("Could not parse GPT response as JSON, using fallback");
-            return fallbackMapping(fields, profile);
+            String content = chunk.path("choices").path(0).path("delta").path("content").asText("");
+            if (!content.isEmpty()) {
+                answer.completion.append(content);
+                sink.next(content);
+            }
+        } catch (JsonProcessingException e) {
+            sink.error(e);
         }
+    }
 
-        return result;
+    private Map<String, Object> requestBody(String prompt, int maxTokens) {
+        Map<String, Object> requestBody = new HashMap<>();
+        requestBody.put("model", model);
+
+        List<Map<String, String>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "user", "content", prompt));
+        requestBody.put("messages", messages);
+        requestBody.put("temperature", TEMPERATURE);
+        requestBody.put("max_tokens", maxTokens);
+        return requestBody;
     }
 
     /**
-     * Fallback mapping when OpenAI is unavailable - uses pattern matching.
+     * Throttling, server errors and connection failures are worth another
+     * try. A 429 for an exhausted quota (insufficient_quota) is not: it won't
+     * clear by waiting.
      */
-    private Map<String, String> fallbackMapping(List<FormFieldInfo> fields, UserProfileDocument profile) {
-        Map<String, String> mapping = new HashMap<>();
-
-        for (FormFieldInfo field : fields) {
-            String combined = normalize(field.getLabel()) + " " +
-                    normalize(field.getName()) + " " +
-                    normalize(field.getId()) + " " +
-                    normalize(field.getPlaceholder());
-
-            String identifier = field.getId() != null && !field.getId().isEmpty()
-                    ? field.getId()
-                    : field.getName();
-
-            if (identifier == null || identifier.isEmpty())
-                continue;
-
-            String value = matchFieldToProfile(combined, profile);
-            if (value != null && !value.isEmpty()) {
-                mapping.put(identifier, value);
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof WebClientRequestException) {
+            return true;
+        }
+        if (e instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            if (status == 429) {
+                return !response.getResponseBodyAsString().contains("insufficient_quota");
             }
+            return status >= 500;
         }
-
-        return mapping;
+        return false;
     }
 
-    private String matchFieldToProfile(String combined, UserProfileDocument profile) {
-        if (matches(combined, "first", "name", "fname", "given")) {
-            return profile.getFirstName();
-        }
-        if (matches(combined, "last", "name", "lname", "surname", "family")) {
-            return profile.getLastName();
-        }
-        if (matches(combined, "email", "e-mail")) {
-            return profile.getEmail();
-        }
-        if (matches(combined, "phone", "tel", "mobile", "cell")) {
-            return profile.getPhone();
-        }
-        if (matches(combined, "linkedin")) {
-            return profile.getLinkedInUrl();
-        }
-        if (matches(combined, "github")) {
-            return profile.getGithubUrl();
-        }
-        if (matches(combined, "city")) {
-            return profile.getCity();
-        }
-        if (matches(combined, "state", "province")) {
-            return profile.getState();
-        }
-        if (matches(combined, "zip", "postal")) {
-            return profile.getZipCode();
-        }
-        if (matches(combined, "country")) {
-            return profile.getCountry();
-        }
-        if (matches(combined, "citizen", "citizenship", "authorized", "authorization")) {
-            return profile.isUsCitizen() ? "Yes"
-                    : (profile.getWorkAuthorization() != null ? profile.getWorkAuthorization() : "");
-        }
-        if (matches(combined, "sponsor", "sponsorship", "visa")) {
-            return profile.isRequiresSponsorship() ? "Yes" : "No";
-        }
-        if (matches(combined, "salary", "compensation", "pay", "expectation")) {
-            return profile.getDesiredSalary();
-        }
-        if (matches(combined, "experience", "years")) {
-            return profile.getYearsOfExperience();
-        }
-        if (matches(combined, "relocate", "relocation")) {
-            return profile.isWillingToRelocate() ? "Yes" : "No";
-        }
-        if (matches(combined, "veteran")) {
-            return profile.getVeteranStatus();
-        }
-        if (matches(combined, "disability", "disabled")) {
-            return profile.getDisabilityStatus();
-        }
-        if (matches(combined, "gender", "sex")) {
-            return profile.getGender();
-        }
-        if (matches(combined, "race", "ethnicity", "ethnic")) {
-            return profile.getEthnicity();
-        }
-        if (matches(combined, "start", "available", "availability")) {
-            return profile.getAvailableStartDate();
-        }
-        if (matches(combined, "degree", "education")) {
-            return profile.getHighestDegree();
+    /**
+     * How long OpenAI asks us to hold off, in ms: Retry-After (OpenAI also
+     * sends retry-after-ms), or else the time until the request or token
+     * window resets if x-ratelimit-remaining-* says it is used up. 0 if
+     * nothing says to wait.
+     */
+    private static long pauseMillis(HttpHeaders headers) {
+        if (headers == null) {
+            return 0;
         }
-        if (matches(combined, "school", "university", "college")) {
-            return profile.getUniversity();
+        try {
+            String retryAfterMs = headers.getFirst("retry-after-ms");
+            if (retryAfterMs != null) {
+                return (long) Double.parseDouble(retryAfterMs.trim());
+            }
+            String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+            if (retryAfter != null) {
+                retryAfter = retryAfter.trim();
+                if (retryAfter.chars().allMatch(c -> Character.isDigit(c) || c == '.')) {
+                    return (long) (Double.parseDouble(retryAfter) * 1000);
+                }
+                Instant at = ZonedDateTime.parse(retryAfter, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+                return Math.max(0, Duration.between(Instant.now(), at).toMillis());
+            }
+        } catch (RuntimeException e) {
+            log.debug("Unparseable Retry-After header: {}", e.getMessage());
         }
-        if (matches(combined, "major", "field", "study")) {
-            return profile.getMajor();
+        long pauseMs = 0;
+        if ("0".equals(headers.getFirst("x-ratelimit-remaining-requests"))) {
+            pauseMs = resetMillis(headers.getFirst("x-ratelimit-reset-requests"));
         }
-        if (matches(combined, "graduation", "graduated")) {
-            return profile.getGraduationYear();
+        if ("0".equals(headers.getFirst("x-ratelimit-remaining-tokens"))) {
+            pauseMs = Math.max(pauseMs, resetMillis(headers.getFirst("x-ratelimit-reset-tokens")));
         }
-        return null;
+        return pauseMs;
     }
 
-    private String normalize(String s) {
-        return s == null ? "" : s.toLowerCase().trim();
+    /**
+     * Parse an x-ratelimit-reset-* value such as "20ms", "1.5s" or "6m0s".
+     */
+    private static long resetMillis(String value) {
+        if (value == null) {
+            return 0;
+        }
+        double totalMs = 0;
+        Matcher matcher = RESET_DURATION.matcher(value.trim());
+        while (matcher.find()) {
+            double amount = Double.parseDouble(matcher.group(1));
+            totalMs += switch (matcher.group(2)) {
+                case "ms" -> amount;
+                case "s" -> amount * 1000;
+                case "m" -> amount * 60_000;
+                default -> amount * 3_600_000;
+            };
+        }
+        return (long) totalMs;
     }
 
-    private boolean matches(String text, String... keywords) {
-        for (String kw : keywords) {
-            if (text.contains(kw))
-                return true;
+    /**
+     * Parse the GPT response into signature -> profile field decisions for
+     * the fields in the prompt, in prompt order. Unknown profile field names
+     * and fields the response leaves out count as "no profile field".
+     */
+    private Map<String, String> parseFieldMappingResponse(String response, List<String> signatures)
+            throws Exception {
+        String jsonStr = response.trim();
+        // Handle if response is wrapped in markdown code blocks
+        if (jsonStr.startsWith("```")) {
+            jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "");
+        }
+
+        JsonNode mapping = objectMapper.readTree(jsonStr);
+        if (!mapping.isObject()) {
+            throw new IllegalArgumentException("Field mapping response is not a JSON object");
         }
-        return false;
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < signatures.size(); i++) {
+            String profileField = mapping.path(String.valueOf(i + 1)).asText(null);
+            result.put(signatures.get(i), ProfileFields.isKey(profileField) ? profileField : null);
+        }
+        return result;
     }
 
     @Override
@@ -412,8 +787,7 @@ public class OpenAIServiceImpl implements OpenAIService {
 
         try {
             log.info("Calling OpenAI API for resume scoring...");
-            String prompt = String.format(
-                    """
+            String template = """
                             You are a professional resume reviewer and ATS (Applicant Tracking System) expert.
 
                             Analyze this resume and provide scores in these categories:
@@ -428,38 +802,22 @@ public class OpenAIServiceImpl implements OpenAIService {
 
                             Respond ONLY with valid JSON in this exact format (no markdown, no extra text):
                             {"overall": 78, "profile": 85, "keywords": 65, "ats": 84, "message": "Brief one-line feedback"}
-                            """,
-                    fileName != null ? fileName : "resume",
-                    resumeText != null && resumeText.length() > 3000
-                            ? resumeText.substring(0, 3000) + "..."
-                            : (resumeText != null ? resumeText : "No content"));
-
-            String response = callOpenAI(prompt);
+                            """;
+            String name = fileName != null ? fileName : "resume";
+
+            // Give the resume whatever the context leaves after the instructions and the answer,
+            // up to the configured cap, keeping its most relevant sections
+            int budget = Math.min(scoreResumeMaxTokens, tokenBudgeter.getContextTokens()
+                    - tokenBudgeter.countPrompt(String.format(template, name, "")) - SCORE_MAX_TOKENS);
+            Fitted resume = tokenBudgeter.fitResume(resumeText, budget);
+            String prompt = String.format(template, name, resume.text().isEmpty() ? "No content" : resume.text());
+
+            // A reply that isn't score JSON isn't cached, so the next attempt asks again
+            String response = callOpenAI(CallSite.SCORE_RESUME, prompt, SCORE_MAX_TOKENS, false,
+                    content -> parses(() -> parseScoreResponse(content)));
             log.info("Raw OpenAI response for resume score: '{}'", response);
 
-            if (response == null || response.isEmpty()) {
-                log.error("OpenAI returned empty response!");
-                throw new RuntimeException("Empty response from OpenAI");
-            }
-
-            // Parse the JSON response
-            String jsonStr = response.trim();
-
-            // Handle markdown code blocks
-            if (jsonStr.startsWith("```")) {
-                jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
-            }
-
-            // Extract JSON if there's extra text before/after
-            int jsonStart = jsonStr.indexOf('{');
-            int jsonEnd = jsonStr.lastIndexOf('}');
-            if (jsonStart >= 0 && jsonEnd > jsonStart) {
-                jsonStr = jsonStr.substring(jsonStart, jsonEnd + 1);
-            }
-
-            log.info("Cleaned JSON string: '{}'", jsonStr);
-
-            JsonNode scoreNode = objectMapper.readTree(jsonStr);
+            JsonNode scoreNode = parseScoreResponse(response);
 
             int overall = scoreNode.path("overall").asInt(-1);
             int profile = scoreNode.path("profile").asInt(-1);
@@ -489,22 +847,55 @@ public class OpenAIServiceImpl implements OpenAIService {
             result.put("ats", 80);
 
             // Determine user-friendly error message
+            int status = e instanceof WebClientResponseException response ? response.getStatusCode().value() : 0;
             String errorMsg = e.getMessage() != null ? e.getMessage().toLowerCase() : "";
             String userMessage;
-            if (errorMsg.contains("429") || errorMsg.contains("too many") || errorMsg.contains("rate limit")) {
+            if (e instanceof RejectedExecutionException || status == 429) {
                 userMessage = "Our AI service is temporarily busy. Please try again in a moment.";
-            } else if (errorMsg.contains("401") || errorMsg.contains("unauthorized") || errorMsg.contains("invalid")) {
+            } else if (status == 401 || status == 403) {
                 userMessage = "AI scoring is temporarily unavailable. Please try again later.";
             } else if (errorMsg.contains("timeout") || errorMsg.contains("timed out")) {
                 userMessage = "The analysis took too long. Please try again.";
-            } else if (errorMsg.contains("connection") || errorMsg.contains("network")) {
+            } else if (e instanceof WebClientRequestException) {
                 userMessage = "Unable to connect to AI service. Please check your connection.";
             } else {
                 userMessage = "Resume analysis is temporarily unavailable. Default scores applied.";
             }
             result.put("message", userMessage);
+            // Placeholder scores; the caller shouldn't keep them
+            result.put("fallback", true);
         }
 
         return result;
     }
+
+    /**
+     * The score object in a scoreResume reply, which may be wrapped in a
+     * markdown code block or surrounded by other text.
+     */
+    private JsonNode parseScoreResponse(String response) throws Exception {
+        if (response == null || response.isEmpty()) {
+            throw new RuntimeException("Empty response from OpenAI");
+        }
+
+        String jsonStr = response.trim();
+
+        // Handle markdown code blocks
+        if (jsonStr.startsWith("```")) {
+            jsonStr = jsonStr.replaceAll("```json\\s*", "").replaceAll("```\\s*", "").trim();
+        }
+
+        // Extract JSON if there's extra text before/after
+        int jsonStart = jsonStr.indexOf('{');
+        int jsonEnd = jsonStr.lastIndexOf('}');
+        if (jsonStart >= 0 && jsonEnd > jsonStart) {
+            jsonStr = jsonStr.substring(jsonStart, jsonEnd + 1);
+        }
+
+        JsonNode scoreNode = objectMapper.readTree(jsonStr);
+        if (!scoreNode.isObject()) {
+            throw new IllegalArgumentException("Resume score response is not a JSON object");
+        }
+        return scoreNode;
+    }
 }
@@ -0,0 +1,162 @@
+package com.easepath.backend.service.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import com.easepath.backend.service.CreditBudgetService;
+import com.easepath.backend.service.JobProvider;
+import com.easepath.backend.service.JobSearchKey;
+import com.easepath.backend.service.TheirStackResponseTransformer;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * TheirStack. Responses are converted to the JSearch format by
+ * {@link TheirStackResponseTransformer}.
+ */
+@Component
+@Order(2)
+public class TheirStackJobProvider implements JobProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(TheirStackJobProvider.class);
+
+    private static final String NAME = "theirstack";
+
+    private final WebClient webClient;
+    private final CreditBudgetService creditBudget;
+    private final TheirStackResponseTransformer transformer;
+
+    @Value("${theirstack.api-key:}")
+    private String theirStackApiKey;
+
+    public TheirStackJobProvider(WebClient.Builder webClientBuilder, CreditBudgetService creditBudget,
+            TheirStackResponseTransformer transformer,
+            @Value("${theirstack.base-url:https://api.theirstack.com}") String baseUrl) {
+        this.webClient = webClientBuilder.clone().baseUrl(baseUrl).build();
+        this.creditBudget = creditBudget;
+        this.transformer = transformer;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return theirStackApiKey != null && !theirStackApiKey.isEmpty();
+    }
+
+    @Override
+    public Mono<String> search(JobSearchKey key) {
+        log.info("🔍 Trying TheirStack API for: {}", key.query());
+        Map<String, Object> requestBody = buildTheirStackRequest(key.query(), key.page(), key.datePosted(),
+                key.remoteJobsOnlyParam(), key.employmentTypes());
+
+        log.info("Sending request to TheirStack: {}", requestBody);
+
+        return webClient.post()
+                .uri("/v1/jobs/search")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + theirStackApiKey)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .bodyValue(requestBody)
+                .retrieve()
+                // The body is transformed as it arrives rather than read into one string first
+                .toEntityFlux(DataBuffer.class)
+                .doOnNext(entity -> recordRateLimitHeaders(entity.getHeaders()))
+                .doOnError(WebClientResponseException.class, e -> recordRateLimitHeaders(e.getHeaders()))
+                .flatMap(entity -> entity.getBody() == null ? Mono.empty() : transformer.transform(entity.getBody()))
+                .doOnNext(response -> log.info(" TheirStack returned results"))
+                .doOnError(e -> log.warn("⚠️ TheirStack failed: {}", e.getMessage()));
+    }
+
+    /**
+     * Pass the X-RateLimit-* headers to the shared credit budget without
+     * blocking the calling (event loop) thread.
+     */
+    private void recordRateLimitHeaders(HttpHeaders headers) {
+        Schedulers.boundedElastic().schedule(() -> creditBudget.recordRateLimitHeaders(NAME, headers));
+    }
+
+    private Map<String, Object> buildTheirStackRequest(String query, int page, String datePosted,
+            String remoteJobsOnly, String employmentTypes) {
+        Map<String, Object> request = new HashMap<>();
+
+        // Pagination - limit to 10 to conserve credits. TheirStack pages start at 0.
+        request.put("page", page - 1);
+        request.put("limit", 10);
+        request.put("blur_company_data", false);
+
+        // Parse query for location
+        String jobTitle = query;
+        String location = null;
+
+        if (query != null && query.toLowerCase().contains(" in ")) {
+            int inIndex = query.toLowerCase().lastIndexOf(" in ");
+            jobTitle = query.substring(0, inIndex).trim();
+            location = query.substring(inIndex + 4).trim();
+        }
+
+        // Job title search
+        if (jobTitle != null && !jobTitle.isEmpty()) {
+            List<String> titlePatterns = new ArrayList<>();
+            titlePatterns.add(jobTitle);
+            request.put("job_title_pattern_or", titlePatterns);
+        }
+
+        // Date posted filter
+        if (datePosted != null && !datePosted.isEmpty() && !datePosted.equals("all")) {
+            int maxAgeDays = switch (datePosted) {
+                case "today" -> 1;
+                case "3days" -> 3;
+                case "week" -> 7;
+                case "month" -> 30;
+                default -> 30;
+            };
+            request.put("posted_at_max_age_days", maxAgeDays);
+        } else {
+            request.put("posted_at_max_age_days", 30);
+        }
+
+        // Location filter
+        List<String> locationPatterns = new ArrayList<>();
+        if ("true".equalsIgnoreCase(remoteJobsOnly)) {
+            locationPatterns.add("remote");
+        }
+        if (location != null && !location.isEmpty()) {
+            locationPatterns.add(location);
+        }
+        if (!locationPatterns.isEmpty()) {
+            request.put("job_location_pattern_or", locationPatterns);
+        }
+
+        // Country filter - default to US
+        List<String> countryCodes = new ArrayList<>();
+        countryCodes.add("US");
+        request.put("job_country_code_or", countryCodes);
+
+        // Order by date posted
+        List<Map<String, Object>> orderBy = new ArrayList<>();
+        Map<String, Object> order = new HashMap<>();
+        order.put("field", "date_posted");
+        order.put("desc", true);
+        orderBy.add(order);
+        request.put("order_by", orderBy);
+
+        return request;
+    }
+}
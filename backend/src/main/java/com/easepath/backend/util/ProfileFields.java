@@ -0,0 +1,197 @@
+package com.easepath.backend.util;
+
+import java.util.List;
+
+import com.easepath.backend.dto.AutofillRequest.FormFieldInfo;
+import com.easepath.backend.model.UserProfileDocument;
+
+/**
+ * The profile fields a form field can be filled from, by name, and how to
+ * read them from a {@link UserProfileDocument}. Form mappings only ever refer
+ * to these names, so a mapping learned for one user's form fills the same
+ * form for anyone.
+ */
+public final class ProfileFields {
+
+    public static final List<String> KEYS = List.of(
+            "firstName", "lastName", "email", "phone", "linkedInUrl", "githubUrl", "portfolioUrl",
+            "address", "city", "state", "zipCode", "country", "workAuthorization",
+            "requiresSponsorship", "isUsCitizen", "hasWorkVisa", "visaType", "desiredSalary",
+            "desiredJobTitle", "yearsOfExperience", "highestDegree", "university", "graduationYear",
+            "major", "veteranStatus", "disabilityStatus", "gender", "ethnicity", "lgbtqIdentity",
+            "availableStartDate", "willingToRelocate", "preferredLocations");
+
+    private ProfileFields() {
+    }
+
+    public static boolean isKey(String profileField) {
+        return profileField != null && KEYS.contains(profileField);
+    }
+
+    /**
+     * Guess which profile field a form field should map to from its label,
+     * name, id and placeholder. Null if nothing matches.
+     */
+    public static String guess(FormFieldInfo field) {
+        String combined = normalize(field.getLabel()) + " " +
+                         normalize(field.getName()) + " " +
+                         normalize(field.getId()) + " " +
+                         normalize(field.getPlaceholder());
+
+        // Pattern matching for common fields
+        if (matches(combined, "first", "name", "fname", "given")) {
+            return "firstName";
+        }
+        if (matches(combined, "last", "name", "lname", "surname", "family")) {
+            return "lastName";
+        }
+        if (matches(combined, "email", "e-mail", "mail")) {
+            return "email";
+        }
+        if (matches(combined, "phone", "tel", "mobile", "cell")) {
+            return "phone";
+        }
+        if (matches(combined, "linkedin")) {
+            return "linkedInUrl";
+        }
+        if (matches(combined, "github")) {
+            return "githubUrl";
+        }
+        if (matches(combined, "portfolio", "website", "personal")) {
+            return "portfolioUrl";
+        }
+        if (matches(combined, "address", "street")) {
+            return "address";
+        }
+        if (matches(combined, "city", "town")) {
+            return "city";
+        }
+        if (matches(combined, "state", "province", "region")) {
+            return "state";
+        }
+        if (matches(combined, "zip", "postal", "postcode")) {
+            return "zipCode";
+        }
+        if (matches(combined, "country", "nation")) {
+            return "country";
+        }
+        if (matches(combined, "authorization", "authorized", "eligib", "work")) {
+            return "workAuthorization";
+        }
+        if (matches(combined, "sponsor", "visa")) {
+            return "requiresSponsorship";
+        }
+        if (matches(combined, "salary", "compensation", "pay")) {
+            return "desiredSalary";
+        }
+        if (matches(combined, "experience", "years")) {
+            return "yearsOfExperience";
+        }
+        if (matches(combined, "degree", "education")) {
+            return "highestDegree";
+        }
+        if (matches(combined, "university", "school", "college")) {
+            return "university";
+        }
+        if (matches(combined, "graduation", "grad year")) {
+            return "graduationYear";
+        }
+        if (matches(combined, "major", "field of study")) {
+            return "major";
+        }
+
+        // New fields for EEO and preferences
+        if (matches(combined, "veteran", "military")) {
+            return "veteranStatus";
+        }
+        if (matches(combined, "disability", "disabled")) {
+            return "disabilityStatus";
+        }
+        if (matches(combined, "gender", "sex")) {
+            return "gender";
+        }
+        if (matches(combined, "ethnicity", "race", "ethnic", "categories describe")) {
+            return "ethnicity";
+        }
+        if (matches(combined, "lgbtq", "lesbian", "gay", "bisexual", "sexual orientation")) {
+            return "lgbtqIdentity";
+        }
+        if (matches(combined, "citizen", "us citizen", "citizenship")) {
+            return "isUsCitizen";
+        }
+        if (matches(combined, "start date", "availability", "available", "when can")) {
+            return "availableStartDate";
+        }
+        if (matches(combined, "relocate", "willing to move")) {
+            return "willingToRelocate";
+        }
+        if (matches(combined, "job title", "position", "desired position")) {
+            return "desiredJobTitle";
+        }
+        if (matches(combined, "visa type", "h1b", "opt", "ead")) {
+            return "visaType";
+        }
+        if (matches(combined, "preferred location", "location preference")) {
+            return "preferredLocations";
+        }
+
+        return null;
+    }
+
+    /**
+     * The profile's value for a profile field, with booleans as Yes/No. Null
+     * for unknown fields.
+     */
+    public static String value(UserProfileDocument profile, String profileField) {
+        if (profile == null || profileField == null) return null;
+
+        return switch (profileField) {
+            case "firstName" -> profile.getFirstName();
+            case "lastName" -> profile.getLastName();
+            case "email" -> profile.getEmail();
+            case "phone" -> profile.getPhone();
+            case "linkedInUrl" -> profile.getLinkedInUrl();
+            case "githubUrl" -> profile.getGithubUrl();
+            case "portfolioUrl" -> profile.getPortfolioUrl();
+            case "address" -> profile.getAddress();
+            case "city" -> profile.getCity();
+            case "state" -> profile.getState();
+            case "zipCode" -> profile.getZipCode();
+            case "country" -> profile.getCountry();
+            case "workAuthorization" -> profile.getWorkAuthorization();
+            case "requiresSponsorship" -> profile.isRequiresSponsorship() ? "Yes" : "No";
+            case "isUsCitizen" -> profile.isUsCitizen() ? "Yes" : "No";
+            case "hasWorkVisa" -> profile.isHasWorkVisa() ? "Yes" : "No";
+            case "visaType" -> profile.getVisaType();
+            case "desiredSalary" -> profile.getDesiredSalary();
+            case "desiredJobTitle" -> profile.getDesiredJobTitle();
+            case "yearsOfExperience" -> profile.getYearsOfExperience();
+            case "highestDegree" -> profile.getHighestDegree();
+            case "university" -> profile.getUniversity();
+            case "graduationYear" -> profile.getGraduationYear();
+            case "major" -> profile.getMajor();
+            case "veteranStatus" -> profile.getVeteranStatus();
+            case "disabilityStatus" -> profile.getDisabilityStatus();
+            case "gender" -> profile.getGender();
+            case "ethnicity" -> profile.getEthnicity();
+            case "lgbtqIdentity" -> profile.getLgbtqIdentity();
+            case "availableStartDate" -> profile.getAvailableStartDate();
+            case "willingToRelocate" -> profile.isWillingToRelocate() ? "Yes" : "No";
+            case "preferredLocations" -> profile.getPreferredLocations();
+            default -> null;
+        };
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase().trim();
+    }
+
+    private static boolean matches(String text, String... keywords) {
+        for (String keyword : keywords) {
+            if (text.contains(keyword)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,22 @@
+package com.easepath.backend.util;
+
+import java.time.Instant;
+
+/**
+ * Helpers for documents that expire through a Mongo TTL index on expireAt.
+ */
+public final class TtlUtils {
+
+    private TtlUtils() {
+    }
+
+    /**
+     * True if a document with this expireAt must no longer be used. Mongo's
+     * TTL monitor only deletes expired documents about once a minute, so a
+     * read can still return one; readers check expireAt themselves. A missing
+     * expireAt counts as expired.
+     */
+    public static boolean isExpired(Instant expireAt, Instant now) {
+        return expireAt == null || !expireAt.isAfter(now);
+    }
+}
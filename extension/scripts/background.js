@@ -296,6 +296,88 @@ chrome.runtime.onMessage.addListener((request, sender, sendResponse) => {
     }
 });
 
+// Stream an AI essay response over a port, relaying the backend's
+// Server-Sent Events to the content script as they arrive
+chrome.runtime.onConnect.addListener((port) => {
+    if (port.name !== "essay_stream") return;
+
+    port.onMessage.addListener((request) => {
+        if (!userEmail || !authToken) {
+            port.postMessage({ type: "error", error: "Not logged in" });
+            return;
+        }
+
+        console.log("Background: Streaming AI response for essay:", request.question.substring(0, 50));
+
+        // Stop the stream (and the generation on the backend) if the content script goes away
+        const controller = new AbortController();
+        port.onDisconnect.addListener(() => controller.abort());
+        let finished = false;
+
+        fetch(`${API_BASE_URL}/generate-essay/stream`, {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json',
+                'Accept': 'text/event-stream',
+                'Authorization': `Bearer ${authToken}`
+            },
+            body: JSON.stringify({
+                userEmail: userEmail,
+                question: request.question,
+                jobTitle: request.jobTitle,
+                companyName: request.companyName,
+                maxLength: request.maxLength || 500
+            }),
+            signal: controller.signal
+        })
+            .then(async res => {
+                if (!res.body) throw new Error(`HTTP ${res.status}`);
+                const reader = res.body.getReader();
+                const decoder = new TextDecoder();
+                let buffer = '';
+                while (true) {
+                    const { done, value } = await reader.read();
+                    if (done) break;
+                    buffer += decoder.decode(value, { stream: true }).replace(/\r\n/g, '\n');
+                    let boundary;
+                    while ((boundary = buffer.indexOf('\n\n')) !== -1) {
+                        const event = parseSseEvent(buffer.slice(0, boundary));
+                        buffer = buffer.slice(boundary + 2);
+                        if (!event) continue;
+                        if (event.type === 'done' || event.type === 'error') finished = true;
+                        port.postMessage(event);
+                    }
+                }
+                if (!finished) throw new Error(`HTTP ${res.status}, stream ended early`);
+            })
+            .catch(err => {
+                if (err.name === 'AbortError') return;
+                console.error("Background: Failed to stream essay:", err);
+                port.postMessage({ type: "error", error: "Could not generate AI response" });
+            });
+    });
+});
+
+// Parse one Server-Sent Event with a JSON payload into { type, ...data }
+function parseSseEvent(raw) {
+    let type = 'message';
+    const data = [];
+    for (const line of raw.split('\n')) {
+        if (line.startsWith('event:')) {
+            type = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+            data.push(line.slice(5));
+        }
+    }
+    if (data.length === 0) return null;
+    try {
+        return { type, ...JSON.parse(data.join('\n')) };
+    } catch (e) {
+        console.error("Background: Unreadable stream event:", raw);
+        return null;
+    }
+}
+
 // Extract platform name from URL
 function extractPlatform(url) {
     try {
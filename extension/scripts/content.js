@@ -213,13 +213,17 @@ async function performSmartAutofill(autoSubmit, sendResponse) {
                             essay.label,
                             jobInfo.title,
                             jobInfo.company,
-                            parseInt(essay.element.getAttribute('maxlength') || '500')
+                            parseInt(essay.element.getAttribute('maxlength') || '500'),
+                            // Show the answer as it is written; the final fill below notifies the page
+                            (partial) => { essay.element.value = partial; }
                         );
 
                         if (aiResponse) {
                             fillTextInput(essay.element, aiResponse);
                             totalFilled++;
                             console.log("EasePath: ✓ AI filled essay:", essay.label.substring(0, 30));
+                        } else {
+                            essay.element.value = '';
                         }
                     }
                 }
@@ -822,36 +826,50 @@ document.addEventListener('submit', () => {
 }, true);
 
 /**
- * Generate an AI response for an essay question
+ * Generate an AI response for an essay question, streamed from the backend.
+ * onPartial (optional) gets the text so far each time more arrives.
  */
-async function generateEssayWithAI(question, jobTitle, companyName, maxLength) {
-    return new Promise((resolve, reject) => {
+async function generateEssayWithAI(question, jobTitle, companyName, maxLength, onPartial) {
+    return new Promise((resolve) => {
+        const port = chrome.runtime.connect({ name: "essay_stream" });
+        let text = '';
+
+        const finish = (result) => {
+            clearTimeout(timeoutId);
+            port.disconnect();
+            resolve(result);
+        };
+
         const timeoutId = setTimeout(() => {
             console.error("EasePath: AI essay generation timed out after 30 seconds");
-            resolve(null);
+            finish(null);
         }, 30000);
 
-        chrome.runtime.sendMessage({
-            action: "generate_essay_response",
-            question: question,
-            jobTitle: jobTitle,
-            companyName: companyName,
-            maxLength: maxLength
-        }, (response) => {
-            clearTimeout(timeoutId);
+        port.onMessage.addListener((message) => {
+            if (message.type === 'token') {
+                text += message.text;
+                if (onPartial) onPartial(text);
+            } else if (message.type === 'done' && message.response) {
+                finish(message.response);
+            } else if (message.type === 'done' || message.type === 'error') {
+                console.error("EasePath: AI essay generation failed:", message.error);
+                finish(null);
+            }
+        });
 
+        port.onDisconnect.addListener(() => {
             if (chrome.runtime.lastError) {
                 console.error("EasePath: Chrome runtime error during AI essay generation:", chrome.runtime.lastError);
-                resolve(null);
-                return;
             }
+            clearTimeout(timeoutId);
+            resolve(null);
+        });
 
-            if (response && response.success && response.response) {
-                resolve(response.response);
-            } else {
-                console.error("EasePath: AI essay generation failed:", response?.error);
-                resolve(null);
-            }
+        port.postMessage({
+            question: question,
+            jobTitle: jobTitle,
+            companyName: companyName,
+            maxLength: maxLength
         });
     });
 }
@@ -73,6 +73,12 @@ const SALARY_OPTIONS = [
   { value: '200000', label: '$200k+' },
 ];
 
+const formatUpdatedAgo = (fetchedAt: string): string => {
+  const hours = Math.floor((Date.now() - new Date(fetchedAt).getTime()) / 3600000);
+  if (hours < 1) return 'Updated just now';
+  return `Updated ${hours} hour${hours === 1 ? '' : 's'} ago`;
+};
+
 const JobsPage: React.FC = () => {
   const { user, logout } = useAuth();
   const { theme } = useTheme();
@@ -88,6 +94,7 @@ const JobsPage: React.FC = () => {
   const [page, setPage] = useState(1);
   const [totalJobs, setTotalJobs] = useState(0);
   const [hasSearched, setHasSearched] = useState(false);
+  const [resultsFetchedAt, setResultsFetchedAt] = useState<string | null>(null);
 
   // Application tracking state
   const [showApplyModal, setShowApplyModal] = useState(false);
@@ -187,6 +194,8 @@ const JobsPage: React.FC = () => {
 
       const data = await response.json();
       console.log('Jobs API response:', data);
+      // Backend reports when cached results were fetched from the job provider
+      setResultsFetchedAt(response.headers.get('X-Fetched-At'));
 
       if (data.data && data.data.length > 0) {
         // Client-side filtering for salary (TheirStack doesn't have salary filter)
@@ -694,6 +703,9 @@ const JobsPage: React.FC = () => {
             <div>
               <h1 className="header-title">Find Your Dream Job</h1>
               <p className="header-subtitle">Browse through thousands of opportunities</p>
+              {resultsFetchedAt && (
+                <p className="header-updated">{formatUpdatedAgo(resultsFetchedAt)}</p>
+              )}
             </div>
           </div>
 